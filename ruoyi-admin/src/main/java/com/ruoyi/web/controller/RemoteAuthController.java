@@ -3,18 +3,17 @@ package com.ruoyi.web.controller;
 import com.ruoyi.common.annotation.Anonymous;
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.core.domain.model.LoginUser;
-import com.ruoyi.framework.web.service.PermissionService;
+import com.ruoyi.common.core.permission.PermissionExpression;
 import com.ruoyi.framework.web.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 远程鉴权控制器
@@ -28,8 +27,9 @@ public class RemoteAuthController {
     @Autowired
     private TokenService tokenService;
     
-    @Autowired
-    private PermissionService permissionService;
+    /** 单次批量验证的最大表达式数 */
+    @Value("${ruoyi.remoteAuth.maxBatchSize:100}")
+    private int maxBatchSize;
     
     /**
      * 远程权限验证接口 - 支持与@PreAuthorize相同的表达式
@@ -59,53 +59,43 @@ public class RemoteAuthController {
     }
     
     /**
-     * 解析权限表达式 - 支持与@PreAuthorize相同的语法
+     * 批量远程权限验证接口 - 同一token一次解析，依次计算多个表达式
+     * 返回结果data为与expressions顺序一致的布尔列表，表达式数超过上限时直接返回错误
      */
-    private boolean evaluatePermissionExpression(LoginUser loginUser, String expression) {
-        // 设置当前用户上下文
-        SecurityContextHolder.getContext().setAuthentication(
-            new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities())
-        );
-        
+    @Anonymous
+    @PostMapping("/validate/batch")
+    public AjaxResult validatePermissionBatch(@RequestBody AuthBatchValidateRequest request) {
+        List<String> expressions = request.getExpressions();
+        if (expressions != null && expressions.size() > maxBatchSize) {
+            return AjaxResult.error("单次最多验证" + maxBatchSize + "个表达式");
+        }
         try {
-            // 解析表达式，支持以下格式：
-            // @ss.hasPermi('system:user:list')
-            // @ss.hasRole('admin')
-            // @ss.hasAnyPermi('system:user:add,system:user:edit')
-            // @ss.hasAnyRoles('admin,manager')
+            // 1. 验证token有效性
+            LoginUser loginUser = tokenService.getLoginUserByToken(request.getToken());
+            if (loginUser == null) {
+                return AjaxResult.error("Token无效或已过期");
+            }
             
-            if (expression.contains("@ss.hasPermi")) {
-                String permission = extractValue(expression, "hasPermi");
-                return permissionService.hasPermi(permission);
-            } else if (expression.contains("@ss.hasRole")) {
-                String role = extractValue(expression, "hasRole");
-                return permissionService.hasRole(role);
-            } else if (expression.contains("@ss.hasAnyPermi")) {
-                String permissions = extractValue(expression, "hasAnyPermi");
-                return permissionService.hasAnyPermi(permissions);
-            } else if (expression.contains("@ss.hasAnyRoles")) {
-                String roles = extractValue(expression, "hasAnyRoles");
-                return permissionService.hasAnyRoles(roles);
+            // 2. 依次执行权限表达式
+            List<Boolean> results = new ArrayList<>(expressions == null ? 0 : expressions.size());
+            if (expressions != null) {
+                for (String expression : expressions) {
+                    results.add(evaluatePermissionExpression(loginUser, expression));
+                }
             }
+            return AjaxResult.success(results);
             
-            return false;
-        } finally {
-            // 清理上下文
-            SecurityContextHolder.clearContext();
+        } catch (Exception e) {
+            return AjaxResult.error("权限验证异常: " + e.getMessage());
         }
     }
     
     /**
-     * 从表达式中提取值
+     * 解析权限表达式 - 支持@ss的全部方法及 and/or/not 组合，编译结果按表达式缓存
+     * 直接基于登录用户计算，无需设置SecurityContextHolder
      */
-    private String extractValue(String expression, String method) {
-        String pattern = method + "\\('([^']*)'\\)";
-        Pattern r = Pattern.compile(pattern);
-        Matcher m = r.matcher(expression);
-        if (m.find()) {
-            return m.group(1);
-        }
-        return "";
+    private boolean evaluatePermissionExpression(LoginUser loginUser, String expression) {
+        return PermissionExpression.evaluate(expression, loginUser);
     }
 }
 
@@ -131,4 +121,28 @@ class AuthValidateRequest {
     public void setExpression(String expression) {
         this.expression = expression;
     }
+}
+
+/**
+ * 批量权限验证请求实体
+ */
+class AuthBatchValidateRequest {
+    private String token;
+    private List<String> expressions;
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public List<String> getExpressions() {
+        return expressions;
+    }
+    
+    public void setExpressions(List<String> expressions) {
+        this.expressions = expressions;
+    }
 }
\ No newline at end of file
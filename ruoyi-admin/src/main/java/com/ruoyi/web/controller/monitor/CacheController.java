@@ -1,12 +1,10 @@
 package com.ruoyi.web.controller.monitor;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 import java.util.TreeSet;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisCallback;
@@ -16,10 +14,15 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.redis.RedisScanResult;
 import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.framework.web.domain.CacheClearJob;
+import com.ruoyi.framework.web.service.CacheClearService;
 import com.ruoyi.system.domain.SysCache;
 
 /**
@@ -31,9 +34,18 @@ import com.ruoyi.system.domain.SysCache;
 @RequestMapping("/monitor/cache")
 public class CacheController
 {
+    /** 单次扫描键名的最大数量 */
+    private static final int MAX_SCAN_COUNT = 1000;
+
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private CacheClearService cacheClearService;
+
     private final static List<SysCache> caches = new ArrayList<SysCache>();
     {
         caches.add(new SysCache(CacheConstants.LOGIN_TOKEN_KEY, "用户信息"));
@@ -79,10 +91,13 @@ public class CacheController
 
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
     @GetMapping("/getKeys/{cacheName}")
-    public AjaxResult getCacheKeys(@PathVariable String cacheName)
+    public AjaxResult getCacheKeys(@PathVariable String cacheName, @RequestParam(defaultValue = "0") String cursor,
+            @RequestParam(defaultValue = "200") int count)
     {
-        Set<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        return AjaxResult.success(new TreeSet<>(cacheKeys));
+        RedisScanResult result = redisCache.scan(cacheName + "*", cursor, Math.min(Math.max(count, 1), MAX_SCAN_COUNT));
+        AjaxResult ajax = AjaxResult.success(new TreeSet<>(result.getKeys()));
+        ajax.put("cursor", result.getCursor());
+        return ajax;
     }
 
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
@@ -98,9 +113,7 @@ public class CacheController
     @DeleteMapping("/clearCacheName/{cacheName}")
     public AjaxResult clearCacheName(@PathVariable String cacheName)
     {
-        Collection<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        redisTemplate.delete(cacheKeys);
-        return AjaxResult.success();
+        return AjaxResult.success(cacheClearService.submit(cacheName + "*"));
     }
 
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
@@ -115,8 +128,18 @@ public class CacheController
     @DeleteMapping("/clearCacheAll")
     public AjaxResult clearCacheAll()
     {
-        Collection<String> cacheKeys = redisTemplate.keys("*");
-        redisTemplate.delete(cacheKeys);
-        return AjaxResult.success();
+        return AjaxResult.success(cacheClearService.submit("*"));
+    }
+
+    @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
+    @GetMapping("/clearProgress/{jobId}")
+    public AjaxResult clearProgress(@PathVariable String jobId)
+    {
+        CacheClearJob job = cacheClearService.getJob(jobId);
+        if (job == null)
+        {
+            return AjaxResult.error("清理任务不存在或已过期");
+        }
+        return AjaxResult.success(job);
     }
 }
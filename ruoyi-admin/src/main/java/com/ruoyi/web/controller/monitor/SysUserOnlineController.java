@@ -1,8 +1,6 @@
 package com.ruoyi.web.controller.monitor;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,14 +10,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.ruoyi.common.annotation.Log;
-import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.controller.BaseController;
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.page.PageDomain;
 import com.ruoyi.common.core.page.TableDataInfo;
-import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.page.TableSupport;
 import com.ruoyi.common.enums.BusinessType;
 import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.framework.web.service.OnlineSessionRegistry;
+import com.ruoyi.framework.web.service.OnlineSessionRegistry.SessionPage;
+import com.ruoyi.framework.web.service.TokenService;
 import com.ruoyi.system.domain.SysUserOnline;
 import com.ruoyi.system.service.ISysUserOnlineService;
 
@@ -36,37 +37,40 @@ public class SysUserOnlineController extends BaseController
     private ISysUserOnlineService userOnlineService;
 
     @Autowired
-    private RedisCache redisCache;
+    private OnlineSessionRegistry onlineSessionRegistry;
+
+    @Autowired
+    private TokenService tokenService;
 
     @PreAuthorize("@ss.hasPermi('monitor:online:list')")
     @GetMapping("/list")
     public TableDataInfo list(String ipaddr, String userName)
     {
-        Collection<String> keys = redisCache.keys(CacheConstants.LOGIN_TOKEN_KEY + "*");
+        PageDomain pageDomain = TableSupport.buildPageRequest();
+        SessionPage page = onlineSessionRegistry.page(userName, ipaddr, pageDomain.getPageNum(), pageDomain.getPageSize());
+        List<String> tokens = page.getTokens();
+        List<LoginUser> users = tokenService.getLoginUsers(tokens);
         List<SysUserOnline> userOnlineList = new ArrayList<SysUserOnline>();
-        for (String key : keys)
+        List<String> staleTokens = new ArrayList<String>();
+        for (int i = 0; i < tokens.size(); i++)
         {
-            LoginUser user = redisCache.getCacheObject(key);
-            if (StringUtils.isNotEmpty(ipaddr) && StringUtils.isNotEmpty(userName))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByInfo(ipaddr, userName, user));
-            }
-            else if (StringUtils.isNotEmpty(ipaddr))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByIpaddr(ipaddr, user));
-            }
-            else if (StringUtils.isNotEmpty(userName) && StringUtils.isNotNull(user.getUser()))
+            LoginUser user = users.get(i);
+            if (StringUtils.isNull(user))
             {
-                userOnlineList.add(userOnlineService.selectOnlineByUserName(userName, user));
+                staleTokens.add(tokens.get(i));
+                continue;
             }
-            else
+            SysUserOnline userOnline = userOnlineService.loginUserToUserOnline(user);
+            if (StringUtils.isNotNull(userOnline))
             {
-                userOnlineList.add(userOnlineService.loginUserToUserOnline(user));
+                userOnlineList.add(userOnline);
             }
         }
-        Collections.reverse(userOnlineList);
-        userOnlineList.removeAll(Collections.singleton(null));
-        return getDataTable(userOnlineList);
+        // 会话已被删除但索引尚未清理的成员
+        onlineSessionRegistry.unregister(staleTokens, userName, ipaddr);
+        TableDataInfo rspData = getDataTable(userOnlineList);
+        rspData.setTotal(Math.max(page.getTotal() - staleTokens.size(), 0));
+        return rspData;
     }
 
     /**
@@ -77,7 +81,7 @@ public class SysUserOnlineController extends BaseController
     @DeleteMapping("/{tokenId}")
     public AjaxResult forceLogout(@PathVariable String tokenId)
     {
-        redisCache.deleteObject(CacheConstants.LOGIN_TOKEN_KEY + tokenId);
+        tokenService.delLoginUser(tokenId);
         return success();
     }
 }
@@ -3,7 +3,6 @@ package com.ruoyi.web.controller.system;
 import com.ruoyi.common.annotation.Anonymous;
 import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.core.domain.AjaxResult;
-import com.ruoyi.common.core.domain.entity.SysMenu;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import com.ruoyi.common.core.domain.model.LoginUser;
 import com.ruoyi.common.utils.DateUtils;
@@ -13,16 +12,18 @@ import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.ip.AddressUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
 import com.ruoyi.common.utils.jwt.JwtUtils;
-import com.ruoyi.framework.manager.AsyncManager;
-import com.ruoyi.framework.manager.factory.AsyncFactory;
+import com.ruoyi.common.utils.jwt.ParsedToken;
+import com.ruoyi.framework.manager.AuditLogManager;
+import com.ruoyi.framework.web.service.RouterCache;
 import com.ruoyi.framework.web.service.SysPermissionService;
 import com.ruoyi.framework.web.service.TokenService;
 import com.ruoyi.system.service.ISysConfigService;
-import com.ruoyi.system.service.ISysMenuService;
 import com.ruoyi.system.service.ISysRefreshTokenService;
 import com.ruoyi.system.service.ISysUserService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -33,7 +34,6 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -50,7 +50,7 @@ public class AuthController
     private JwtUtils jwtUtils;
 
     @Autowired
-    private ISysMenuService menuService;
+    private RouterCache routerCache;
 
     @Autowired
     private SysPermissionService permissionService;
@@ -85,21 +85,24 @@ public class AuthController
             return AjaxResult.error("刷新令牌不能为空");
         }
 
+        // 解析刷新令牌，后续校验复用同一解析结果
+        ParsedToken parsedToken = jwtUtils.parse(refreshToken);
+
         // 验证是否为有效的JWT Refresh Token
-        if (!jwtUtils.isRefreshToken(refreshToken))
+        if (!jwtUtils.isRefreshToken(parsedToken))
         {
             return AjaxResult.error("无效的刷新令牌");
         }
 
         // 验证刷新令牌是否过期
-        if (jwtUtils.isTokenExpired(refreshToken))
+        if (parsedToken.isExpired())
         {
             return AjaxResult.error("刷新令牌已过期");
         }
 
         // 从刷新令牌中获取用户信息
-        Long userId = jwtUtils.getUserIdFromToken(refreshToken);
-        String username = jwtUtils.getUsernameFromToken(refreshToken);
+        Long userId = parsedToken.getLong(JwtUtils.USER_ID_KEY);
+        String username = parsedToken.getString(JwtUtils.USERNAME_KEY);
 
         if (userId == null || StringUtils.isEmpty(username))
         {
@@ -257,11 +260,10 @@ public class AuthController
      * @return 路由信息
      */
     @GetMapping("/routers")
-    public AjaxResult getRouters()
+    public ResponseEntity<byte[]> getRouters()
     {
-        Long userId = SecurityUtils.getUserId();
-        List<SysMenu> menus = menuService.selectMenuTreeByUserId(userId);
-        return AjaxResult.success(menuService.buildMenus(menus));
+        SysUser user = SecurityUtils.getLoginUser().getUser();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(routerCache.getRouters(user));
     }
 
     /**
@@ -304,7 +306,7 @@ public class AuthController
                 refreshTokenService.deleteSysRefreshTokenByRefreshToken(refreshToken);
             }
             // 记录用户退出日志
-            AsyncManager.me().execute(AsyncFactory.recordLogininfor(userName, Constants.LOGOUT, MessageUtils.message("user.logout.success")));
+            AuditLogManager.me().recordLogininfor(userName, Constants.LOGOUT, MessageUtils.message("user.logout.success"));
             // 记录登录信息
             recordLoginInfo(userId);
         }
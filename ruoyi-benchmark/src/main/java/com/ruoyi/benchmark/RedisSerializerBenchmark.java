@@ -0,0 +1,171 @@
+package com.ruoyi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.ruoyi.common.core.domain.entity.SysDept;
+import com.ruoyi.common.core.domain.entity.SysRole;
+import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.redis.FastJson2BinaryRedisSerializer;
+import com.ruoyi.framework.config.FastJson2JsonRedisSerializer;
+
+/**
+ * 登录用户redis序列化基准测试
+ * 对比 FastJson2JsonRedisSerializer（JSON文本）与 FastJson2BinaryRedisSerializer（JSONB，超过阈值压缩）
+ * 的编码、解码耗时；两种格式的载荷大小在初始化时输出
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisSerializerBenchmark
+{
+    /** 角色数量 */
+    @Param({ "1", "5" })
+    private int roleCount;
+
+    /** 每个角色的菜单权限数量 */
+    @Param({ "50", "500" })
+    private int permsPerRole;
+
+    /** 二进制格式的压缩阈值（字节），Integer.MAX_VALUE 表示不压缩 */
+    @Param({ "1024", "2147483647" })
+    private int compressThreshold;
+
+    private FastJson2JsonRedisSerializer<Object> jsonSerializer;
+
+    private FastJson2BinaryRedisSerializer<Object> binarySerializer;
+
+    private LoginUser loginUser;
+
+    private byte[] jsonBytes;
+
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        jsonSerializer = new FastJson2JsonRedisSerializer<>(Object.class);
+        binarySerializer = new FastJson2BinaryRedisSerializer<>(Object.class, compressThreshold);
+        loginUser = createLoginUser(roleCount, permsPerRole);
+        jsonBytes = jsonSerializer.serialize(loginUser);
+        binaryBytes = binarySerializer.serialize(loginUser);
+        System.out.printf("%n载荷大小：json=%d字节，binary=%d字节（%.1f%%）%n", jsonBytes.length, binaryBytes.length,
+                binaryBytes.length * 100.0 / jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize()
+    {
+        return jsonSerializer.serialize(loginUser);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize()
+    {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize()
+    {
+        return binarySerializer.serialize(loginUser);
+    }
+
+    @Benchmark
+    public Object binaryDeserialize()
+    {
+        return binarySerializer.deserialize(binaryBytes);
+    }
+
+    /**
+     * 构造与线上会话结构一致的登录用户（含部门、角色及角色权限）
+     */
+    private static LoginUser createLoginUser(int roleCount, int permsPerRole)
+    {
+        SysDept dept = new SysDept();
+        dept.setDeptId(103L);
+        dept.setParentId(101L);
+        dept.setAncestors("0,100,101");
+        dept.setDeptName("研发部门");
+        dept.setOrderNum(1);
+        dept.setLeader("若依");
+        dept.setStatus("0");
+
+        List<SysRole> roles = new ArrayList<>();
+        for (int r = 0; r < roleCount; r++)
+        {
+            SysRole role = new SysRole();
+            role.setRoleId(100L + r);
+            role.setRoleName("角色" + r);
+            role.setRoleKey("role" + r);
+            role.setRoleSort(r);
+            role.setDataScope("2");
+            role.setStatus("0");
+            Set<String> perms = new HashSet<>();
+            for (int p = 0; p < permsPerRole; p++)
+            {
+                perms.add("module" + (p % 20) + ":resource" + p + ":" + (p % 2 == 0 ? "list" : "edit"));
+            }
+            role.setPermissions(perms);
+            roles.add(role);
+        }
+
+        SysUser user = new SysUser();
+        user.setUserId(2L);
+        user.setDeptId(103L);
+        user.setUserName("ry");
+        user.setNickName("若依");
+        user.setEmail("ry@qq.com");
+        user.setPhonenumber("15666666666");
+        user.setSex("1");
+        user.setPassword("$2a$10$7JB720yubVSZvUI0rEqK/.VqGOZTH.ulu33dHOiBE8ByOhJIrdAu2");
+        user.setStatus("0");
+        user.setDelFlag("0");
+        user.setLoginIp("127.0.0.1");
+        user.setLoginDate(new Date());
+        user.setDept(dept);
+        user.setRoles(roles);
+
+        // 权限以字典编号位图保存，基准测试不连接redis，直接构造位图
+        long[] bits = new long[(roleCount * permsPerRole >>> 6) + 1];
+        for (int id = 1; id <= roleCount * permsPerRole; id++)
+        {
+            bits[id >>> 6] |= 1L << id;
+        }
+        LoginUser loginUser = new LoginUser();
+        loginUser.setUserId(user.getUserId());
+        loginUser.setDeptId(user.getDeptId());
+        loginUser.setUser(user);
+        loginUser.setPermissionBits(bits);
+        loginUser.setPermissionEpoch("9f8e7d6c5b4a39281706f5e4d3c2b1a0");
+        loginUser.setToken("6f1b0a3c-2d4e-4f5a-8b9c-0d1e2f3a4b5c");
+        loginUser.setLoginTime(System.currentTimeMillis());
+        loginUser.setExpireTime(loginUser.getLoginTime() + 30 * 60 * 1000L);
+        loginUser.setIpaddr("127.0.0.1");
+        loginUser.setLoginLocation("内网IP");
+        loginUser.setBrowser("Chrome 12");
+        loginUser.setOs("Windows 10");
+        return loginUser;
+    }
+}
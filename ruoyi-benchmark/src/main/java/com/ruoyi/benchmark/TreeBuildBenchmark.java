@@ -0,0 +1,180 @@
+package com.ruoyi.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.ruoyi.common.core.domain.entity.SysMenu;
+import com.ruoyi.common.utils.TreeUtils;
+
+/**
+ * 树结构构建基准测试
+ * 对比 TreeUtils.build（按父节点分组，线性时间）与原 SysMenuServiceImpl 中逐节点扫描全表的递归实现，
+ * 分别测试 buildMenuTree（父节点不在列表中的为根）与 getChildPerms（指定父节点）两种用法
+ *
+ * @author ruoyi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBuildBenchmark
+{
+    /** 节点数量 */
+    @Param({ "1000", "10000", "20000" })
+    private int size;
+
+    /** 每个节点的最大子节点数，决定树的宽度与深度 */
+    @Param({ "8" })
+    private int fanOut;
+
+    private List<SysMenu> menus;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        // 按层生成，再打乱顺序，模拟数据库按 parent_id, order_num 排序之外的任意顺序
+        Random random = new Random(42);
+        menus = new ArrayList<>(size);
+        List<Long> parents = new ArrayList<>();
+        parents.add(0L);
+        int parentIndex = 0;
+        int children = 0;
+        int limit = 1 + random.nextInt(fanOut);
+        for (long id = 1; id <= size; id++)
+        {
+            if (children >= limit)
+            {
+                parentIndex++;
+                children = 0;
+                limit = 1 + random.nextInt(fanOut);
+            }
+            SysMenu menu = new SysMenu();
+            menu.setMenuId(id);
+            menu.setParentId(parents.get(parentIndex));
+            menu.setMenuName("菜单" + id);
+            menus.add(menu);
+            parents.add(id);
+            children++;
+        }
+        Collections.shuffle(menus, random);
+    }
+
+    @Benchmark
+    public List<SysMenu> treeUtilsBuild()
+    {
+        return TreeUtils.build(menus, SysMenu::getMenuId, SysMenu::getParentId, SysMenu::setChildren);
+    }
+
+    @Benchmark
+    public List<SysMenu> recursionBuild()
+    {
+        return buildMenuTree(menus);
+    }
+
+    @Benchmark
+    public List<SysMenu> treeUtilsChildPerms()
+    {
+        return TreeUtils.build(menus, 0, SysMenu::getMenuId, SysMenu::getParentId, SysMenu::setChildren);
+    }
+
+    @Benchmark
+    public List<SysMenu> recursionChildPerms()
+    {
+        return getChildPerms(menus, 0);
+    }
+
+    /**
+     * 原 SysMenuServiceImpl.buildMenuTree 实现
+     */
+    private static List<SysMenu> buildMenuTree(List<SysMenu> menus)
+    {
+        List<SysMenu> returnList = new ArrayList<SysMenu>();
+        List<Long> tempList = menus.stream().map(SysMenu::getMenuId).collect(Collectors.toList());
+        for (Iterator<SysMenu> iterator = menus.iterator(); iterator.hasNext();)
+        {
+            SysMenu menu = (SysMenu) iterator.next();
+            // 如果是顶级节点, 遍历该父节点的所有子节点
+            if (!tempList.contains(menu.getParentId()))
+            {
+                recursionFn(menus, menu);
+                returnList.add(menu);
+            }
+        }
+        if (returnList.isEmpty())
+        {
+            returnList = menus;
+        }
+        return returnList;
+    }
+
+    /**
+     * 原 SysMenuServiceImpl.getChildPerms 实现
+     */
+    private static List<SysMenu> getChildPerms(List<SysMenu> list, int parentId)
+    {
+        List<SysMenu> returnList = new ArrayList<SysMenu>();
+        for (Iterator<SysMenu> iterator = list.iterator(); iterator.hasNext();)
+        {
+            SysMenu t = (SysMenu) iterator.next();
+            // 一、根据传入的某个父节点ID,遍历该父节点的所有子节点
+            if (t.getParentId() == parentId)
+            {
+                recursionFn(list, t);
+                returnList.add(t);
+            }
+        }
+        return returnList;
+    }
+
+    private static void recursionFn(List<SysMenu> list, SysMenu t)
+    {
+        // 得到子节点列表
+        List<SysMenu> childList = getChildList(list, t);
+        t.setChildren(childList);
+        for (SysMenu tChild : childList)
+        {
+            if (hasChild(list, tChild))
+            {
+                recursionFn(list, tChild);
+            }
+        }
+    }
+
+    private static List<SysMenu> getChildList(List<SysMenu> list, SysMenu t)
+    {
+        List<SysMenu> tlist = new ArrayList<SysMenu>();
+        Iterator<SysMenu> it = list.iterator();
+        while (it.hasNext())
+        {
+            SysMenu n = (SysMenu) it.next();
+            if (n.getParentId().longValue() == t.getMenuId().longValue())
+            {
+                tlist.add(n);
+            }
+        }
+        return tlist;
+    }
+
+    private static boolean hasChild(List<SysMenu> list, SysMenu t)
+    {
+        return getChildList(list, t).size() > 0;
+    }
+}
@@ -6,6 +6,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.enums.LimitAlgorithm;
 import com.ruoyi.common.enums.LimitType;
 
 /**
@@ -37,4 +38,20 @@ public @interface RateLimiter
      * 限流类型
      */
     public LimitType limitType() default LimitType.DEFAULT;
+
+    /**
+     * 限流算法
+     */
+    public LimitAlgorithm algorithm() default LimitAlgorithm.FIXED_WINDOW;
+
+    /**
+     * 单节点预限流次数，在访问Redis前按同一时间窗口在本机拦截超限请求，0表示不启用
+     */
+    public int localCount() default 0;
+
+    /**
+     * 混合模式每次从Redis租借的令牌数，大于0时启用：按令牌桶算法限流（忽略algorithm），
+     * 本机扣减租借到的令牌，仅续租时访问Redis；0表示每次请求都访问Redis
+     */
+    public int leaseSize() default 0;
 }
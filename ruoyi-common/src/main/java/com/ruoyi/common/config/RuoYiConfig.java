@@ -1,7 +1,9 @@
 package com.ruoyi.common.config;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import com.ruoyi.common.utils.ip.AddressUtils;
 
 /**
  * 读取项目相关配置
@@ -27,9 +29,24 @@ public class RuoYiConfig
     /** 获取地址开关 */
     private static boolean addressEnabled;
 
+    /** IP地址库文件路径，classpath: 开头表示类路径下的资源 */
+    private static String addressDatabase;
+
     /** 验证码类型 */
     private static String captchaType;
 
+    /**
+     * 项目启动时，开启获取地址时加载IP地址库
+     */
+    @PostConstruct
+    public void init()
+    {
+        if (addressEnabled)
+        {
+            AddressUtils.init();
+        }
+    }
+
     public String getName()
     {
         return name;
@@ -80,6 +97,16 @@ public class RuoYiConfig
         RuoYiConfig.addressEnabled = addressEnabled;
     }
 
+    public static String getAddressDatabase()
+    {
+        return addressDatabase;
+    }
+
+    public void setAddressDatabase(String addressDatabase)
+    {
+        RuoYiConfig.addressDatabase = addressDatabase;
+    }
+
     public static String getCaptchaType() {
         return captchaType;
     }
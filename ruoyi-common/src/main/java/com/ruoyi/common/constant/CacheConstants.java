@@ -12,6 +12,46 @@ public class CacheConstants
      */
     public static final String LOGIN_TOKEN_KEY = "login_tokens:";
 
+    /**
+     * 登录用户会话续期时间 redis key
+     */
+    public static final String LOGIN_TOKEN_META_KEY = "login_token_meta:";
+
+    /**
+     * 在线会话索引 redis key（按过期时间排序）
+     */
+    public static final String ONLINE_SESSION_KEY = "online_sessions";
+
+    /**
+     * 在线会话按用户名称索引 redis key
+     */
+    public static final String ONLINE_SESSION_USER_KEY = "online_sessions:user:";
+
+    /**
+     * 在线会话按登录地址索引 redis key
+     */
+    public static final String ONLINE_SESSION_IP_KEY = "online_sessions:ip:";
+
+    /**
+     * 登录用户本地缓存失效通知 redis channel
+     */
+    public static final String LOGIN_TOKEN_INVALIDATE_CHANNEL = "login_tokens_invalidate";
+
+    /**
+     * 权限快照刷新通知 redis channel
+     */
+    public static final String RBAC_REFRESH_CHANNEL = "sys_rbac_refresh";
+
+    /**
+     * 用户角色关联刷新通知 redis channel
+     */
+    public static final String RBAC_USER_ROLE_CHANNEL = "sys_rbac_user_role";
+
+    /**
+     * 权限字典 redis key（权限字符 -> 编号，另含纪元与编号序列），缓存批量清理时保留
+     */
+    public static final String PERMISSION_DICT_KEY = "sys_perm_dict";
+
     /**
      * 验证码 redis key
      */
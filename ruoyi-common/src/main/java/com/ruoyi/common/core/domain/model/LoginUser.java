@@ -1,7 +1,11 @@
 package com.ruoyi.common.core.domain.model;
 
 import com.alibaba.fastjson2.annotation.JSONField;
+import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.core.permission.PermissionDictionary;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.bean.BeanUtils;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
@@ -62,10 +66,20 @@ public class LoginUser implements UserDetails
     private String os;
 
     /**
-     * 权限列表
+     * 权限列表，不写入缓存，需要时由权限位图解码
      */
     private Set<String> permissions;
 
+    /**
+     * 权限位图，下标为权限字典中的编号，由 TokenService 写入会话时编码
+     */
+    private long[] permissionBits;
+
+    /**
+     * 权限位图所属的权限字典纪元，与当前字典不一致时位图失效
+     */
+    private String permissionEpoch;
+
     /**
      * 用户信息
      */
@@ -78,7 +92,7 @@ public class LoginUser implements UserDetails
     public LoginUser(SysUser user, Set<String> permissions)
     {
         this.user = user;
-        this.permissions = permissions;
+        setPermissions(permissions);
     }
 
     public LoginUser(Long userId, Long deptId, SysUser user, Set<String> permissions)
@@ -86,7 +100,7 @@ public class LoginUser implements UserDetails
         this.userId = userId;
         this.deptId = deptId;
         this.user = user;
-        this.permissions = permissions;
+        setPermissions(permissions);
     }
 
     public Long getUserId()
@@ -238,14 +252,88 @@ public class LoginUser implements UserDetails
         this.expireTime = expireTime;
     }
 
+    @JSONField(serialize = false)
     public Set<String> getPermissions()
     {
+        if (permissions == null && permissionBits != null)
+        {
+            permissions = PermissionDictionary.decode(permissionBits, permissionEpoch);
+        }
         return permissions;
     }
 
+    /**
+     * 设置权限列表，已编码的位图随之失效，写入会话时重新编码
+     */
     public void setPermissions(Set<String> permissions)
     {
         this.permissions = permissions;
+        this.permissionBits = null;
+        this.permissionEpoch = null;
+    }
+
+    public long[] getPermissionBits()
+    {
+        return permissionBits;
+    }
+
+    public void setPermissionBits(long[] permissionBits)
+    {
+        this.permissionBits = permissionBits;
+        this.permissions = null;
+    }
+
+    public String getPermissionEpoch()
+    {
+        return permissionEpoch;
+    }
+
+    public void setPermissionEpoch(String permissionEpoch)
+    {
+        this.permissionEpoch = permissionEpoch;
+        this.permissions = null;
+    }
+
+    /**
+     * 是否拥有所有权限或指定权限
+     *
+     * @param permission 权限字符
+     * @return 结果
+     */
+    public boolean hasPermission(String permission)
+    {
+        if (permissionBits == null && permissions != null)
+        {
+            return permissions.contains(Constants.ALL_PERMISSION) || permissions.contains(StringUtils.trim(permission));
+        }
+        return PermissionDictionary.hasPermission(permissionBits, permissionEpoch, permission);
+    }
+
+    /**
+     * 是否拥有所有权限或任意一个指定权限
+     *
+     * @param permissions 以逗号分隔的权限列表
+     * @return 结果
+     */
+    public boolean hasAnyPermission(String permissions)
+    {
+        if (permissionBits == null && this.permissions != null)
+        {
+            // 尚未编码为位图（写入会话之前），直接按权限列表判断
+            if (this.permissions.contains(Constants.ALL_PERMISSION))
+            {
+                return true;
+            }
+            for (String permission : permissions.split(Constants.PERMISSION_DELIMITER))
+            {
+                if (this.permissions.contains(permission.trim()))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return PermissionDictionary.hasAnyPermission(permissionBits, permissionEpoch, permissions);
     }
 
     public SysUser getUser()
@@ -258,6 +346,38 @@ public class LoginUser implements UserDetails
         this.user = user;
     }
 
+    /**
+     * 复制登录用户，用户信息浅复制一份，权限位图只读共享
+     * 修改副本（续期时间、个人信息等）不会影响其他持有原对象的请求
+     *
+     * @return 副本
+     */
+    public LoginUser copy()
+    {
+        LoginUser copy = new LoginUser();
+        copy.userId = userId;
+        copy.deptId = deptId;
+        copy.token = token;
+        copy.loginTime = loginTime;
+        copy.expireTime = expireTime;
+        copy.ipaddr = ipaddr;
+        copy.loginLocation = loginLocation;
+        copy.browser = browser;
+        copy.os = os;
+        copy.permissionBits = permissionBits;
+        copy.permissionEpoch = permissionEpoch;
+        if (permissionBits == null)
+        {
+            copy.permissions = permissions;
+        }
+        if (user != null)
+        {
+            copy.user = new SysUser();
+            BeanUtils.copyProperties(user, copy.user);
+        }
+        return copy;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities()
     {
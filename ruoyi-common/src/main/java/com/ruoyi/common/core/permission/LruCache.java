@@ -0,0 +1,115 @@
+package com.ruoyi.common.core.permission;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界的近似LRU缓存
+ * 读取只更新条目的访问序号，不加锁；超出上限时由一个线程按访问序号淘汰最久未访问的四分之一条目
+ *
+ * @author ruoyi
+ */
+final class LruCache<K, V>
+{
+    private final int maxSize;
+
+    private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    /**
+     * @param maxSize 最大条目数
+     */
+    LruCache(int maxSize)
+    {
+        this.maxSize = Math.max(maxSize, 1);
+    }
+
+    V get(K key)
+    {
+        Node<V> node = map.get(key);
+        if (node == null)
+        {
+            return null;
+        }
+        // 访问序号只用于淘汰排序，并发访问时丢失个别递增不影响结果
+        node.accessed = clock.get();
+        return node.value;
+    }
+
+    void put(K key, V value)
+    {
+        map.put(key, new Node<>(value, clock.incrementAndGet()));
+        if (map.size() > maxSize)
+        {
+            evict();
+        }
+    }
+
+    int size()
+    {
+        return map.size();
+    }
+
+    private void evict()
+    {
+        if (!evictLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            int size = map.size();
+            if (size <= maxSize)
+            {
+                return;
+            }
+            // 先取出访问序号快照再排序，避免排序期间序号变化
+            long[] stamps = new long[size];
+            int count = 0;
+            for (Node<V> node : map.values())
+            {
+                if (count == stamps.length)
+                {
+                    break;
+                }
+                stamps[count++] = node.accessed;
+            }
+            if (count == 0)
+            {
+                return;
+            }
+            Arrays.sort(stamps, 0, count);
+            long threshold = stamps[Math.min(count - 1, size - (maxSize - maxSize / 4))];
+            map.values().removeIf(node -> node.accessed < threshold);
+            if (map.size() > maxSize)
+            {
+                // 访问序号相同的条目过多时一并淘汰
+                map.values().removeIf(node -> node.accessed <= threshold);
+            }
+        }
+        finally
+        {
+            evictLock.unlock();
+        }
+    }
+
+    private static final class Node<V>
+    {
+        private final V value;
+
+        /** 最近访问序号 */
+        private volatile long accessed;
+
+        private Node(V value, long accessed)
+        {
+            this.value = value;
+            this.accessed = accessed;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.ruoyi.common.core.permission;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.spring.SpringUtils;
+import com.ruoyi.common.utils.uuid.IdUtils;
+
+/**
+ * 全局权限字典
+ * 每个权限字符在redis中分配一个只增不改的编号，所有节点共用同一份字典，登录用户的权限以编号为下标保存为位图。
+ * 编号0固定表示所有权限（*:*:*）；本地缓存编号后，权限校验只需一次位运算。
+ * 只有登录时编码权限集合才会分配编号，权限校验只查询本地字典、不访问redis，本地字典中没有的权限字符直接判定为没有权限；
+ * 位图中出现本地字典尚未加载的编号（其他节点新分配）时才重新加载字典。
+ * 字典在redis中整体保存为一个hash，并带有随机生成的纪元标识；字典丢失（redis清空、重启）后重新分配时纪元随之改变，
+ * 位图与生成时的纪元一起保存，纪元不一致的位图不再按编号解释，避免同一编号在新旧字典中代表不同权限
+ *
+ * @author ruoyi
+ */
+public class PermissionDictionary
+{
+    /** 所有权限的编号 */
+    public static final int ALL_PERMISSION_ID = 0;
+
+    /** 字典中不存在的权限字符 */
+    public static final int UNKNOWN_ID = -1;
+
+    /** 字典hash中保存纪元的字段，保留字段以#开头，不会作为权限字符 */
+    private static final String EPOCH_FIELD = "#epoch";
+
+    /** 字典hash中保存编号序列的字段 */
+    private static final String SEQ_FIELD = "#seq";
+
+    private static final String RESERVED_PREFIX = "#";
+
+    /** 已解析权限列表的缓存上限，超出后淘汰最久未使用的列表 */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    /** 遇到纪元不一致或含有未加载编号的位图时，两次重新加载字典的最小间隔（毫秒） */
+    private static final long RELOAD_INTERVAL_MILLIS = 1000;
+
+    /** 编码时字典被重建的最大重试次数 */
+    private static final int MAX_ENCODE_ATTEMPTS = 3;
+
+    /** 不存在时分配新编号（编号从1开始），字典不存在时以传入的纪元新建；返回 纪元、编号 */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> ASSIGN_SCRIPT = new DefaultRedisScript<>(
+            "local epoch = redis.call('hget', KEYS[1], ARGV[2])\n"
+                    + "if not epoch then\n"
+                    + "  epoch = ARGV[4]\n"
+                    + "  redis.call('hset', KEYS[1], ARGV[2], epoch)\n"
+                    + "end\n"
+                    + "local id = redis.call('hget', KEYS[1], ARGV[1])\n"
+                    + "if not id then\n"
+                    + "  id = redis.call('hincrby', KEYS[1], ARGV[3], 1)\n"
+                    + "  redis.call('hset', KEYS[1], ARGV[1], id)\n"
+                    + "end\n"
+                    + "return {epoch, tonumber(id)}", List.class);
+
+    private static final List<String> DICT_KEYS = Collections.singletonList(CacheConstants.PERMISSION_DICT_KEY);
+
+    private static volatile StringRedisTemplate redisTemplate;
+
+    /** 当前字典，首次使用时加载 */
+    private static volatile Dictionary dictionary;
+
+    /**
+     * 指定字典使用的redis，未指定时从Spring容器获取
+     *
+     * @param template redis
+     */
+    public static void setRedisTemplate(StringRedisTemplate template)
+    {
+        redisTemplate = template;
+    }
+
+    /**
+     * 权限集合编码为位图，不存在的权限字符在此分配编号
+     *
+     * @param permissions 权限集合
+     * @return 位图及其纪元
+     */
+    public static EncodedPermissions encode(Collection<String> permissions)
+    {
+        for (int attempt = 0; attempt < MAX_ENCODE_ATTEMPTS; attempt++)
+        {
+            Dictionary dict = current();
+            if (dict.epoch == null)
+            {
+                // redis中尚无字典，先确定纪元
+                getRedisTemplate().opsForHash().putIfAbsent(CacheConstants.PERMISSION_DICT_KEY, EPOCH_FIELD,
+                        IdUtils.fastSimpleUUID());
+                dict = load(dict);
+            }
+            long[] bits = encode(dict, permissions);
+            if (bits != null)
+            {
+                return new EncodedPermissions(dict.epoch, bits);
+            }
+            // 字典已被重建，重新加载后整体重新编码
+            load(dict);
+        }
+        throw new ServiceException("权限字典已变更，请重新登录");
+    }
+
+    /**
+     * 按指定字典编码，分配编号时发现字典纪元已变化返回null
+     */
+    private static long[] encode(Dictionary dict, Collection<String> permissions)
+    {
+        long[] bits = new long[0];
+        for (String permission : permissions)
+        {
+            if (StringUtils.isEmpty(permission) || permission.startsWith(RESERVED_PREFIX))
+            {
+                continue;
+            }
+            Integer id = dict.ids.get(permission);
+            if (id == null)
+            {
+                List<?> result = getRedisTemplate().execute(ASSIGN_SCRIPT, DICT_KEYS, permission, EPOCH_FIELD,
+                        SEQ_FIELD, IdUtils.fastSimpleUUID());
+                if (!StringUtils.equals((String) result.get(0), dict.epoch))
+                {
+                    return null;
+                }
+                id = ((Number) result.get(1)).intValue();
+                dict.put(permission, id);
+            }
+            int index = id >>> 6;
+            if (index >= bits.length)
+            {
+                bits = Arrays.copyOf(bits, index + 1);
+            }
+            bits[index] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     * 位图解码为权限集合，纪元与当前字典不一致时返回空集合
+     *
+     * @param bits 位图
+     * @param epoch 位图的纪元
+     * @return 权限集合
+     */
+    public static Set<String> decode(long[] bits, String epoch)
+    {
+        Set<String> permissions = new HashSet<>();
+        Dictionary dict = bits == null ? null : dictionaryOf(epoch);
+        if (dict == null)
+        {
+            return permissions;
+        }
+        boolean reloaded = false;
+        for (int index = 0; index < bits.length; index++)
+        {
+            long word = bits[index];
+            while (word != 0)
+            {
+                int id = (index << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                String permission = dict.names.get(id);
+                if (permission == null && !reloaded)
+                {
+                    // 其他节点在同一纪元内新分配的编号，重新加载字典
+                    reloaded = true;
+                    dict = load(dict);
+                    if (!epoch.equals(dict.epoch))
+                    {
+                        return new HashSet<>();
+                    }
+                    permission = dict.names.get(id);
+                }
+                if (permission != null)
+                {
+                    permissions.add(permission);
+                }
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * 位图是否拥有所有权限或指定权限，只查询不分配编号
+     *
+     * @param bits 位图
+     * @param epoch 位图的纪元
+     * @param permission 权限字符
+     * @return 结果
+     */
+    public static boolean hasPermission(long[] bits, String epoch, String permission)
+    {
+        Dictionary dict = bits == null || bits.length == 0 ? null : dictionaryOf(epoch, bits);
+        if (dict == null)
+        {
+            return false;
+        }
+        return contains(bits, ALL_PERMISSION_ID) || contains(bits, lookup(dict, StringUtils.trim(permission)));
+    }
+
+    /**
+     * 位图是否拥有所有权限或任意一个指定权限，只查询不分配编号
+     *
+     * @param bits 位图
+     * @param epoch 位图的纪元
+     * @param permissions 以逗号分隔的权限列表，各权限字符去除首尾空格，空项忽略
+     * @return 结果
+     */
+    public static boolean hasAnyPermission(long[] bits, String epoch, String permissions)
+    {
+        Dictionary dict = bits == null || bits.length == 0 ? null : dictionaryOf(epoch, bits);
+        if (dict == null)
+        {
+            return false;
+        }
+        if (contains(bits, ALL_PERMISSION_ID))
+        {
+            return true;
+        }
+        for (int id : resolve(dict, permissions))
+        {
+            if (contains(bits, id))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取权限列表的编号（全部已知时缓存），未知的权限字符为 UNKNOWN_ID
+     */
+    private static int[] resolve(Dictionary dict, String permissions)
+    {
+        int[] ids = dict.resolved.get(permissions);
+        if (ids != null)
+        {
+            return ids;
+        }
+        ids = Arrays.stream(permissions.split(Constants.PERMISSION_DELIMITER)).map(String::trim)
+                .filter(StringUtils::isNotEmpty).mapToInt(permission -> lookup(dict, permission)).toArray();
+        if (Arrays.stream(ids).noneMatch(id -> id == UNKNOWN_ID))
+        {
+            dict.resolved.put(permissions, ids);
+        }
+        return ids;
+    }
+
+    /**
+     * 查询权限字符的编号，只查本地字典，不存在返回 UNKNOWN_ID
+     * 位图中的编号都已在本地字典中（见 dictionaryOf），本地没有的权限字符不可能出现在位图中
+     */
+    private static int lookup(Dictionary dict, String permission)
+    {
+        if (StringUtils.isEmpty(permission))
+        {
+            return UNKNOWN_ID;
+        }
+        Integer id = dict.ids.get(permission);
+        return id != null ? id : UNKNOWN_ID;
+    }
+
+    /**
+     * 位图中的最大编号，位图为空返回-1
+     */
+    private static int maxId(long[] bits)
+    {
+        for (int index = bits.length - 1; index >= 0; index--)
+        {
+            if (bits[index] != 0)
+            {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(bits[index]);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contains(long[] bits, int id)
+    {
+        int index = id >>> 6;
+        return id >= 0 && index < bits.length && (bits[index] & 1L << id) != 0;
+    }
+
+    private static Dictionary current()
+    {
+        Dictionary dict = dictionary;
+        return dict != null ? dict : load(null);
+    }
+
+    /**
+     * 获取与位图纪元一致的字典；不一致时（字典已重建或本节点尚未加载新字典）按间隔重新加载一次，仍不一致返回null
+     */
+    private static Dictionary dictionaryOf(String epoch)
+    {
+        if (epoch == null)
+        {
+            return null;
+        }
+        Dictionary dict = current();
+        if (!epoch.equals(dict.epoch) && System.currentTimeMillis() - dict.loadTime >= RELOAD_INTERVAL_MILLIS)
+        {
+            dict = load(dict);
+        }
+        return epoch.equals(dict.epoch) ? dict : null;
+    }
+
+    /**
+     * 获取与位图纪元一致、且已包含位图中全部编号的字典；
+     * 位图含有其他节点新分配、本地尚未加载的编号时按间隔重新加载一次
+     */
+    private static Dictionary dictionaryOf(String epoch, long[] bits)
+    {
+        Dictionary dict = dictionaryOf(epoch);
+        if (dict != null && maxId(bits) > dict.maxId.get()
+                && System.currentTimeMillis() - dict.loadTime >= RELOAD_INTERVAL_MILLIS)
+        {
+            dict = load(dict);
+            if (!epoch.equals(dict.epoch))
+            {
+                return null;
+            }
+        }
+        return dict;
+    }
+
+    /**
+     * 从redis加载完整字典并整体替换本地字典
+     *
+     * @param stale 调用方持有的旧字典，已被其他线程替换时直接使用新字典
+     */
+    private static synchronized Dictionary load(Dictionary stale)
+    {
+        Dictionary dict = dictionary;
+        if (dict != null && dict != stale)
+        {
+            return dict;
+        }
+        Map<Object, Object> entries = getRedisTemplate().opsForHash().entries(CacheConstants.PERMISSION_DICT_KEY);
+        dict = new Dictionary((String) entries.get(EPOCH_FIELD));
+        for (Map.Entry<Object, Object> entry : entries.entrySet())
+        {
+            String permission = (String) entry.getKey();
+            if (!permission.startsWith(RESERVED_PREFIX))
+            {
+                dict.put(permission, Integer.parseInt((String) entry.getValue()));
+            }
+        }
+        dictionary = dict;
+        return dict;
+    }
+
+    private static StringRedisTemplate getRedisTemplate()
+    {
+        StringRedisTemplate template = redisTemplate;
+        if (template == null)
+        {
+            template = SpringUtils.getBean(StringRedisTemplate.class);
+            redisTemplate = template;
+        }
+        return template;
+    }
+
+    /**
+     * 某一纪元的本地字典，纪元变化时整体替换
+     */
+    private static final class Dictionary
+    {
+        /** 纪元，redis中尚无字典时为空 */
+        private final String epoch;
+
+        private final long loadTime = System.currentTimeMillis();
+
+        /** 权限字符 -> 编号 */
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+        /** 编号 -> 权限字符 */
+        private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+        /** 已加载的最大编号 */
+        private final AtomicInteger maxId = new AtomicInteger(ALL_PERMISSION_ID);
+
+        /** 以逗号分隔的权限列表 -> 编号 */
+        private final LruCache<String, int[]> resolved = new LruCache<>(MAX_CACHE_SIZE);
+
+        private Dictionary(String epoch)
+        {
+            this.epoch = epoch;
+            put(Constants.ALL_PERMISSION, ALL_PERMISSION_ID);
+        }
+
+        private void put(String permission, int id)
+        {
+            ids.putIfAbsent(permission, id);
+            names.putIfAbsent(id, permission);
+            maxId.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    /**
+     * 编码后的权限位图
+     */
+    public static final class EncodedPermissions
+    {
+        private final String epoch;
+
+        private final long[] bits;
+
+        private EncodedPermissions(String epoch, long[] bits)
+        {
+            this.epoch = epoch;
+            this.bits = bits;
+        }
+
+        public String getEpoch()
+        {
+            return epoch;
+        }
+
+        public long[] getBits()
+        {
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.ruoyi.common.core.permission;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.domain.entity.SysRole;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 编译后的权限表达式，语义与 PermissionService（@ss）一致，直接基于 LoginUser 计算，不依赖 SecurityContextHolder
+ *
+ * 支持的语法：
+ * <pre>
+ * @ss.hasPermi('system:user:list')
+ * @ss.hasAnyPermi('system:user:add,system:user:edit') and not @ss.hasRole('guest')
+ * (@ss.hasRole('admin') or @ss.hasAnyRoles('manager,common')) &amp;&amp; !@ss.lacksPermi('system:user:query')
+ * </pre>
+ *
+ * @author ruoyi
+ */
+public abstract class PermissionExpression
+{
+    private static final Logger log = LoggerFactory.getLogger(PermissionExpression.class);
+
+    /** 编译缓存上限，超出后淘汰最久未使用的表达式 */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    /** 表达式 -> 编译结果，只缓存解析成功的表达式 */
+    private static final LruCache<String, PermissionExpression> CACHE = new LruCache<>(MAX_CACHE_SIZE);
+
+    /** 无法解析的表达式一律拒绝 */
+    static final PermissionExpression DENY = new Constant(false);
+
+    /**
+     * 基于登录用户计算表达式
+     *
+     * @param loginUser 登录用户
+     * @return 是否满足
+     */
+    public abstract boolean evaluate(LoginUser loginUser);
+
+    /**
+     * 编译权限表达式
+     *
+     * @param expression 权限表达式
+     * @return 编译结果
+     * @throws IllegalArgumentException 表达式语法错误
+     */
+    public static PermissionExpression compile(String expression)
+    {
+        return new PermissionExpressionParser(expression).parse();
+    }
+
+    /**
+     * 获取编译后的权限表达式（带缓存），语法错误的表达式返回恒为false的结果
+     *
+     * @param expression 权限表达式
+     * @return 编译结果
+     */
+    public static PermissionExpression get(String expression)
+    {
+        if (StringUtils.isEmpty(expression))
+        {
+            return DENY;
+        }
+        PermissionExpression compiled = CACHE.get(expression);
+        if (compiled != null)
+        {
+            return compiled;
+        }
+        try
+        {
+            compiled = compile(expression);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // 解析失败的表达式不缓存，避免任意输入挤占缓存
+            log.warn("权限表达式'{}'解析失败: {}", expression, e.getMessage());
+            return DENY;
+        }
+        CACHE.put(expression, compiled);
+        return compiled;
+    }
+
+    /**
+     * 计算权限表达式
+     *
+     * @param expression 权限表达式
+     * @param loginUser 登录用户
+     * @return 是否满足
+     */
+    public static boolean evaluate(String expression, LoginUser loginUser)
+    {
+        return get(expression).evaluate(loginUser);
+    }
+
+    /**
+     * 判断用户是否拥有某角色
+     */
+    static boolean hasRole(LoginUser loginUser, String role)
+    {
+        if (StringUtils.isEmpty(role) || StringUtils.isNull(loginUser) || StringUtils.isNull(loginUser.getUser())
+                || StringUtils.isEmpty(loginUser.getUser().getRoles()))
+        {
+            return false;
+        }
+        for (SysRole sysRole : loginUser.getUser().getRoles())
+        {
+            String roleKey = sysRole.getRoleKey();
+            if (Constants.SUPER_ADMIN.equals(roleKey) || role.equals(roleKey))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 常量
+     */
+    static final class Constant extends PermissionExpression
+    {
+        private final boolean value;
+
+        Constant(boolean value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public boolean evaluate(LoginUser loginUser)
+        {
+            return value;
+        }
+    }
+
+    /**
+     * 逻辑与
+     */
+    static final class And extends PermissionExpression
+    {
+        private final PermissionExpression left;
+        private final PermissionExpression right;
+
+        And(PermissionExpression left, PermissionExpression right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean evaluate(LoginUser loginUser)
+        {
+            return left.evaluate(loginUser) && right.evaluate(loginUser);
+        }
+    }
+
+    /**
+     * 逻辑或
+     */
+    static final class Or extends PermissionExpression
+    {
+        private final PermissionExpression left;
+        private final PermissionExpression right;
+
+        Or(PermissionExpression left, PermissionExpression right)
+        {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean evaluate(LoginUser loginUser)
+        {
+            return left.evaluate(loginUser) || right.evaluate(loginUser);
+        }
+    }
+
+    /**
+     * 逻辑非
+     */
+    static final class Not extends PermissionExpression
+    {
+        private final PermissionExpression operand;
+
+        Not(PermissionExpression operand)
+        {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean evaluate(LoginUser loginUser)
+        {
+            return !operand.evaluate(loginUser);
+        }
+    }
+
+    /**
+     * hasPermi / hasAnyPermi，权限字符串在编译时已完成切分与trim，权限字典编号由字典按列表缓存
+     */
+    static final class HasPermi extends PermissionExpression
+    {
+        private final List<String> permissions;
+
+        /** 以逗号分隔的权限列表，作为字典的解析缓存key */
+        private final String joined;
+
+        HasPermi(List<String> permissions)
+        {
+            this.permissions = permissions;
+            this.joined = String.join(Constants.PERMISSION_DELIMITER, permissions);
+        }
+
+        @Override
+        public boolean evaluate(LoginUser loginUser)
+        {
+            if (StringUtils.isNull(loginUser) || permissions.isEmpty())
+            {
+                return false;
+            }
+            return loginUser.hasAnyPermission(joined);
+        }
+    }
+
+    /**
+     * hasRole / hasAnyRoles，角色字符串在编译时已完成切分与trim
+     */
+    static final class HasRole extends PermissionExpression
+    {
+        private final List<String> roles;
+
+        HasRole(List<String> roles)
+        {
+            this.roles = roles;
+        }
+
+        @Override
+        public boolean evaluate(LoginUser loginUser)
+        {
+            for (String role : roles)
+            {
+                if (hasRole(loginUser, role))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.ruoyi.common.core.permission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import com.ruoyi.common.constant.Constants;
+
+/**
+ * 权限表达式解析器（递归下降）
+ *
+ * <pre>
+ * expr    := or
+ * or      := and (('or' | '||') and)*
+ * and     := unary (('and' | '&amp;&amp;') unary)*
+ * unary   := ('not' | '!') unary | primary
+ * primary := '(' expr ')' | 'true' | 'false' | '@ss.' IDENT '(' STRING ')'
+ * </pre>
+ *
+ * @author ruoyi
+ */
+final class PermissionExpressionParser
+{
+    /** 表达式前缀 */
+    private static final String BEAN_PREFIX = "@ss.";
+
+    private final String source;
+
+    private int pos;
+
+    PermissionExpressionParser(String source)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException("权限表达式不能为空");
+        }
+        this.source = source;
+    }
+
+    /**
+     * 解析完整表达式
+     */
+    PermissionExpression parse()
+    {
+        PermissionExpression expression = parseOr();
+        skipWhitespace();
+        if (pos < source.length())
+        {
+            throw error("存在无法识别的内容");
+        }
+        return expression;
+    }
+
+    private PermissionExpression parseOr()
+    {
+        PermissionExpression left = parseAnd();
+        while (acceptOperator("||") || acceptKeyword("or"))
+        {
+            left = new PermissionExpression.Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private PermissionExpression parseAnd()
+    {
+        PermissionExpression left = parseUnary();
+        while (acceptOperator("&&") || acceptKeyword("and"))
+        {
+            left = new PermissionExpression.And(left, parseUnary());
+        }
+        return left;
+    }
+
+    private PermissionExpression parseUnary()
+    {
+        if (acceptOperator("!") || acceptKeyword("not"))
+        {
+            return new PermissionExpression.Not(parseUnary());
+        }
+        return parsePrimary();
+    }
+
+    private PermissionExpression parsePrimary()
+    {
+        if (acceptOperator("("))
+        {
+            PermissionExpression expression = parseOr();
+            expect(')');
+            return expression;
+        }
+        if (acceptKeyword("true"))
+        {
+            return new PermissionExpression.Constant(true);
+        }
+        if (acceptKeyword("false"))
+        {
+            return new PermissionExpression.Constant(false);
+        }
+        skipWhitespace();
+        if (!source.startsWith(BEAN_PREFIX, pos))
+        {
+            throw error("期望 @ss. 方法调用");
+        }
+        pos += BEAN_PREFIX.length();
+        String method = readIdentifier();
+        expect('(');
+        String value = readString();
+        expect(')');
+        return createCall(method, value);
+    }
+
+    /**
+     * 根据方法名生成节点，参数在此处完成切分与trim，计算时不再处理字符串
+     */
+    private PermissionExpression createCall(String method, String value)
+    {
+        switch (method)
+        {
+            case "hasPermi":
+                return new PermissionExpression.HasPermi(single(value));
+            case "lacksPermi":
+                return new PermissionExpression.Not(new PermissionExpression.HasPermi(single(value)));
+            case "hasAnyPermi":
+                return new PermissionExpression.HasPermi(split(value, Constants.PERMISSION_DELIMITER));
+            case "hasRole":
+                return new PermissionExpression.HasRole(single(value));
+            case "lacksRole":
+                return new PermissionExpression.Not(new PermissionExpression.HasRole(single(value)));
+            case "hasAnyRoles":
+                return new PermissionExpression.HasRole(split(value, Constants.ROLE_DELIMITER));
+            default:
+                throw error("不支持的方法 " + method);
+        }
+    }
+
+    private static List<String> single(String value)
+    {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? Collections.emptyList() : Collections.singletonList(trimmed);
+    }
+
+    private static List<String> split(String value, String delimiter)
+    {
+        List<String> values = new ArrayList<>();
+        for (String item : value.split(delimiter))
+        {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty())
+            {
+                values.add(trimmed);
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private String readIdentifier()
+    {
+        int start = pos;
+        while (pos < source.length() && Character.isJavaIdentifierPart(source.charAt(pos)))
+        {
+            pos++;
+        }
+        if (start == pos)
+        {
+            throw error("期望方法名");
+        }
+        return source.substring(start, pos);
+    }
+
+    private String readString()
+    {
+        skipWhitespace();
+        if (pos >= source.length() || (source.charAt(pos) != '\'' && source.charAt(pos) != '"'))
+        {
+            throw error("期望字符串参数");
+        }
+        char quote = source.charAt(pos++);
+        int end = source.indexOf(quote, pos);
+        if (end < 0)
+        {
+            throw error("字符串未闭合");
+        }
+        String value = source.substring(pos, end);
+        pos = end + 1;
+        return value;
+    }
+
+    private void expect(char c)
+    {
+        skipWhitespace();
+        if (pos >= source.length() || source.charAt(pos) != c)
+        {
+            throw error("期望 '" + c + "'");
+        }
+        pos++;
+    }
+
+    private boolean acceptOperator(String operator)
+    {
+        skipWhitespace();
+        if (source.startsWith(operator, pos))
+        {
+            pos += operator.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 关键字需完整匹配，避免把 'order' 之类的标识符识别为 'or'
+     */
+    private boolean acceptKeyword(String keyword)
+    {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (!source.regionMatches(true, pos, keyword, 0, keyword.length()))
+        {
+            return false;
+        }
+        if (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end)))
+        {
+            return false;
+        }
+        pos = end;
+        return true;
+    }
+
+    private void skipWhitespace()
+    {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos)))
+        {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message)
+    {
+        return new IllegalArgumentException(message + "，位置 " + pos + "：" + source);
+    }
+}
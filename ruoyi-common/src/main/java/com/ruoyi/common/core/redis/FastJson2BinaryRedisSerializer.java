@@ -0,0 +1,207 @@
+package com.ruoyi.common.core.redis;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.Filter;
+import com.ruoyi.common.constant.Constants;
+
+/**
+ * Redis使用FastJson二进制格式（JSONB）序列化
+ *
+ * 数据格式：魔数(1字节) + 版本(1字节) + 标志位(1字节) + [压缩前长度(4字节)] + JSONB数据
+ * 魔数不是合法的UTF-8首字节，因此可以与 FastJson2JsonRedisSerializer 写入的JSON文本共存，读取时自动识别
+ *
+ * @author ruoyi
+ */
+public class FastJson2BinaryRedisSerializer<T> implements RedisSerializer<T>
+{
+    /** 魔数 */
+    public static final byte MAGIC = (byte) 0xB1;
+
+    /** 当前格式版本 */
+    public static final byte VERSION = 1;
+
+    /** 标志位：数据已压缩 */
+    private static final byte FLAG_COMPRESSED = 0x01;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private static final Filter AUTO_TYPE_FILTER = JSONReader.autoTypeFilter(Constants.JSON_WHITELIST_STR);
+
+    private final Class<T> clazz;
+
+    /** 超过该字节数时压缩，小于等于0表示不压缩 */
+    private final int compressThreshold;
+
+    public FastJson2BinaryRedisSerializer(Class<T> clazz)
+    {
+        this(clazz, 0);
+    }
+
+    public FastJson2BinaryRedisSerializer(Class<T> clazz, int compressThreshold)
+    {
+        this.clazz = clazz;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(T t) throws SerializationException
+    {
+        if (t == null)
+        {
+            return new byte[0];
+        }
+        byte[] body = JSONB.toBytes(t, JSONWriter.Feature.WriteClassName);
+        if (compressThreshold > 0 && body.length > compressThreshold)
+        {
+            byte[] compressed = deflate(body);
+            if (compressed.length < body.length)
+            {
+                byte[] bytes = new byte[HEADER_LENGTH + 4 + compressed.length];
+                writeHeader(bytes, FLAG_COMPRESSED);
+                writeInt(bytes, HEADER_LENGTH, body.length);
+                System.arraycopy(compressed, 0, bytes, HEADER_LENGTH + 4, compressed.length);
+                return bytes;
+            }
+        }
+        byte[] bytes = new byte[HEADER_LENGTH + body.length];
+        writeHeader(bytes, (byte) 0);
+        System.arraycopy(body, 0, bytes, HEADER_LENGTH, body.length);
+        return bytes;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException
+    {
+        return decode(bytes, clazz);
+    }
+
+    /**
+     * 是否为本序列化器写入的数据
+     *
+     * @param bytes 数据
+     * @return 结果
+     */
+    public static boolean isBinary(byte[] bytes)
+    {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC;
+    }
+
+    /**
+     * 解码Redis中的数据，兼容二进制格式与JSON文本格式
+     *
+     * @param bytes 数据
+     * @param clazz 目标类型
+     * @return 对象
+     */
+    public static <T> T decode(byte[] bytes, Class<T> clazz) throws SerializationException
+    {
+        if (bytes == null || bytes.length <= 0)
+        {
+            return null;
+        }
+        if (!isBinary(bytes))
+        {
+            return JSON.parseObject(bytes, clazz, AUTO_TYPE_FILTER);
+        }
+        byte version = bytes[1];
+        if (version != VERSION)
+        {
+            throw new SerializationException("不支持的序列化版本: " + version);
+        }
+        byte[] body;
+        if ((bytes[2] & FLAG_COMPRESSED) != 0)
+        {
+            body = inflate(bytes, HEADER_LENGTH + 4, readInt(bytes, HEADER_LENGTH));
+        }
+        else
+        {
+            body = new byte[bytes.length - HEADER_LENGTH];
+            System.arraycopy(bytes, HEADER_LENGTH, body, 0, body.length);
+        }
+        return JSONB.parseObject(body, clazz, AUTO_TYPE_FILTER);
+    }
+
+    private static void writeHeader(byte[] bytes, byte flags)
+    {
+        bytes[0] = MAGIC;
+        bytes[1] = VERSION;
+        bytes[2] = flags;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value)
+    {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset)
+    {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static byte[] deflate(byte[] body)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try
+        {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished())
+            {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length)
+    {
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] body = new byte[length];
+            int count = 0;
+            while (count < length && !inflater.finished())
+            {
+                int n = inflater.inflate(body, count, length - count);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                count += n;
+            }
+            if (count != length)
+            {
+                throw new SerializationException("压缩数据已损坏");
+            }
+            return body;
+        }
+        catch (DataFormatException e)
+        {
+            throw new SerializationException("压缩数据已损坏", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.ruoyi.common.core.redis;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -9,9 +11,17 @@ import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.BoundSetOperations;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Component;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
 
 /**
  * spring redis 工具类
@@ -22,6 +32,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class RedisCache
 {
+    /** 单次SCAN的超时时间（秒） */
+    private static final long SCAN_TIMEOUT_SECONDS = 10;
+
     @Autowired
     public RedisTemplate redisTemplate;
 
@@ -49,6 +62,20 @@ public class RedisCache
         redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
     }
 
+    /**
+     * 键不存在时缓存对象（SET NX PX），用于一次往返完成判重
+     *
+     * @param key 缓存的键值
+     * @param value 缓存的值
+     * @param timeout 时间
+     * @param timeUnit 时间颗粒度
+     * @return true=设置成功；false=键已存在
+     */
+    public <T> boolean setCacheObjectIfAbsent(final String key, final T value, final long timeout, final TimeUnit timeUnit)
+    {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, timeUnit));
+    }
+
     /**
      * 设置有效时间
      *
@@ -108,6 +135,41 @@ public class RedisCache
         return operation.get(key);
     }
 
+    /**
+     * 批量获得缓存的基本对象（MGET），一次往返读取多个键
+     *
+     * @param keys 缓存键值集合
+     * @return 与键顺序一致的数据，不存在的键对应null
+     */
+    public <T> List<T> getMultiCacheObject(final Collection<String> keys)
+    {
+        ValueOperations<String, T> operation = redisTemplate.opsForValue();
+        return operation.multiGet(keys);
+    }
+
+    /**
+     * 设置有效时间，同时写入一个同有效期的缓存对象，两条命令在一次管道中发送
+     *
+     * @param key 需要续期的Redis键
+     * @param valueKey 写入的Redis键
+     * @param value 写入的值
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     */
+    public <T> void expireAndSet(final String key, final String valueKey, final T value, final long timeout, final TimeUnit unit)
+    {
+        redisTemplate.executePipelined(new SessionCallback<Object>()
+        {
+            @Override
+            public Object execute(RedisOperations operations)
+            {
+                operations.expire(key, timeout, unit);
+                operations.opsForValue().set(valueKey, value, timeout, unit);
+                return null;
+            }
+        });
+    }
+
     /**
      * 删除单个对象
      *
@@ -265,4 +327,65 @@ public class RedisCache
     {
         return redisTemplate.keys(pattern);
     }
+
+    /**
+     * 按游标扫描键名（SCAN），每次调用只执行一次SCAN命令，不会长时间阻塞Redis
+     *
+     * @param pattern 匹配模式
+     * @param cursor 游标，首次扫描传 "0"
+     * @param count 单次扫描的建议数量
+     * @return 下一次扫描的游标与本批键名，游标为 "0" 表示扫描结束
+     */
+    public RedisScanResult scan(final String pattern, final String cursor, final int count)
+    {
+        return (RedisScanResult) redisTemplate.execute((RedisCallback<RedisScanResult>) connection -> {
+            RedisKeyAsyncCommands<byte[], byte[]> commands = (RedisKeyAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            ScanArgs scanArgs = ScanArgs.Builder.matches(pattern).limit(count);
+            KeyScanCursor<byte[]> scanCursor = LettuceFutures.awaitOrCancel(commands.scan(ScanCursor.of(cursor), scanArgs),
+                    SCAN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            List<String> keys = new ArrayList<>(scanCursor.getKeys().size());
+            for (byte[] key : scanCursor.getKeys())
+            {
+                keys.add(new String(key, StandardCharsets.UTF_8));
+            }
+            return new RedisScanResult(scanCursor.isFinished() ? RedisScanResult.FINISHED : scanCursor.getCursor(), keys);
+        });
+    }
+
+    /**
+     * 批量删除键（UNLINK），按批次在一次管道中发送，内存由Redis后台线程回收
+     *
+     * @param keys 键名集合
+     * @param batchSize 每条UNLINK命令包含的键数量
+     * @return 实际删除的键数量
+     */
+    public long unlink(final List<String> keys, final int batchSize)
+    {
+        if (keys == null || keys.isEmpty())
+        {
+            return 0;
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < keys.size(); i += batchSize)
+            {
+                List<String> batch = keys.subList(i, Math.min(i + batchSize, keys.size()));
+                byte[][] rawKeys = new byte[batch.size()][];
+                for (int j = 0; j < batch.size(); j++)
+                {
+                    rawKeys[j] = batch.get(j).getBytes(StandardCharsets.UTF_8);
+                }
+                connection.keyCommands().unlink(rawKeys);
+            }
+            return null;
+        });
+        long count = 0;
+        for (Object result : results)
+        {
+            if (result instanceof Number)
+            {
+                count += ((Number) result).longValue();
+            }
+        }
+        return count;
+    }
 }
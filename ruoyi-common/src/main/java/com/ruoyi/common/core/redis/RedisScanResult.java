@@ -0,0 +1,44 @@
+package com.ruoyi.common.core.redis;
+
+import java.util.List;
+
+/**
+ * 单次SCAN的结果
+ *
+ * @author ruoyi
+ */
+public class RedisScanResult
+{
+    /** 扫描结束时的游标 */
+    public static final String FINISHED = "0";
+
+    /** 下一次扫描的游标 */
+    private final String cursor;
+
+    /** 本批键名 */
+    private final List<String> keys;
+
+    public RedisScanResult(String cursor, List<String> keys)
+    {
+        this.cursor = cursor;
+        this.keys = keys;
+    }
+
+    public String getCursor()
+    {
+        return cursor;
+    }
+
+    public List<String> getKeys()
+    {
+        return keys;
+    }
+
+    /**
+     * 是否已扫描完全部键
+     */
+    public boolean isFinished()
+    {
+        return FINISHED.equals(cursor);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ruoyi.common.enums;
+
+/**
+ * 限流算法
+ *
+ * @author ruoyi
+ */
+public enum LimitAlgorithm
+{
+    /**
+     * 固定窗口计数，窗口边界处最多可放行两倍请求
+     */
+    FIXED_WINDOW,
+
+    /**
+     * 滑动窗口日志，记录窗口内每次请求的时间，结果精确但占用内存与请求数成正比
+     */
+    SLIDING_WINDOW_LOG,
+
+    /**
+     * 滑动窗口计数，按上一窗口计数加权估算，内存占用固定
+     */
+    SLIDING_WINDOW_COUNTER,
+
+    /**
+     * 令牌桶，以 count/time 的速率补充令牌，允许不超过 count 的突发
+     */
+    TOKEN_BUCKET
+}
@@ -30,6 +30,14 @@ public class RepeatedlyRequestWrapper extends HttpServletRequestWrapper
         body = HttpHelper.getBodyString(request).getBytes(Constants.UTF8);
     }
 
+    /**
+     * 获取请求体原始字节（不复制，调用方不得修改）
+     */
+    public byte[] getBody()
+    {
+        return body;
+    }
+
     @Override
     public BufferedReader getReader() throws IOException
     {
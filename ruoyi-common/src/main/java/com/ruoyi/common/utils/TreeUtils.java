@@ -0,0 +1,201 @@
+package com.ruoyi.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 树结构构建工具类
+ * 一次遍历按父节点ID分组（long为键的开放寻址表，不装箱），再从根节点逐层挂接子节点，整体为线性时间；
+ * 子节点顺序与原列表一致
+ *
+ * @author ruoyi
+ */
+public class TreeUtils
+{
+    /**
+     * 构建树结构，父节点不在列表中的节点作为根节点；没有根节点时（数据成环）原样返回列表
+     *
+     * @param nodes 节点列表
+     * @param idGetter 节点ID
+     * @param parentIdGetter 父节点ID
+     * @param childrenSetter 设置子节点
+     * @return 根节点列表
+     */
+    public static <T> List<T> build(List<T> nodes, Function<T, Long> idGetter, Function<T, Long> parentIdGetter,
+            BiConsumer<T, List<T>> childrenSetter)
+    {
+        LongObjectMap<T> index = new LongObjectMap<>(nodes.size());
+        for (T node : nodes)
+        {
+            Long id = idGetter.apply(node);
+            if (id != null)
+            {
+                index.put(id, node);
+            }
+        }
+        List<T> roots = new ArrayList<>();
+        for (T node : nodes)
+        {
+            Long parentId = parentIdGetter.apply(node);
+            if (parentId == null || !index.containsKey(parentId))
+            {
+                roots.add(node);
+            }
+        }
+        if (roots.isEmpty())
+        {
+            return nodes;
+        }
+        attach(roots, groupByParent(nodes, parentIdGetter), idGetter, childrenSetter);
+        return roots;
+    }
+
+    /**
+     * 构建指定父节点下的树结构
+     *
+     * @param nodes 节点列表
+     * @param parentId 父节点ID
+     * @param idGetter 节点ID
+     * @param parentIdGetter 父节点ID
+     * @param childrenSetter 设置子节点
+     * @return 父节点的直接子节点列表
+     */
+    public static <T> List<T> build(List<T> nodes, long parentId, Function<T, Long> idGetter,
+            Function<T, Long> parentIdGetter, BiConsumer<T, List<T>> childrenSetter)
+    {
+        LongObjectMap<List<T>> children = groupByParent(nodes, parentIdGetter);
+        List<T> roots = children.get(parentId);
+        if (roots == null)
+        {
+            return new ArrayList<>();
+        }
+        attach(roots, children, idGetter, childrenSetter);
+        return roots;
+    }
+
+    /**
+     * 按父节点ID分组
+     */
+    private static <T> LongObjectMap<List<T>> groupByParent(List<T> nodes, Function<T, Long> parentIdGetter)
+    {
+        LongObjectMap<List<T>> children = new LongObjectMap<>(nodes.size());
+        for (T node : nodes)
+        {
+            Long parentId = parentIdGetter.apply(node);
+            if (parentId == null)
+            {
+                continue;
+            }
+            List<T> list = children.get(parentId);
+            if (list == null)
+            {
+                list = new ArrayList<>();
+                children.put(parentId, list);
+            }
+            list.add(node);
+        }
+        return children;
+    }
+
+    /**
+     * 从根节点开始设置子节点，每组子节点只挂接一次；不可达的成环节点不会被访问
+     */
+    private static <T> void attach(List<T> roots, LongObjectMap<List<T>> children, Function<T, Long> idGetter,
+            BiConsumer<T, List<T>> childrenSetter)
+    {
+        Deque<T> stack = new ArrayDeque<>(roots);
+        while (!stack.isEmpty())
+        {
+            T node = stack.pop();
+            Long id = idGetter.apply(node);
+            List<T> childList = id == null ? null : children.remove(id);
+            if (childList == null)
+            {
+                childrenSetter.accept(node, new ArrayList<>());
+                continue;
+            }
+            childrenSetter.accept(node, childList);
+            for (T child : childList)
+            {
+                stack.push(child);
+            }
+        }
+    }
+
+    /**
+     * 以long为键的开放寻址哈希表，容量在创建时按元素数量确定
+     */
+    private static final class LongObjectMap<V>
+    {
+        private final long[] keys;
+
+        private final Object[] values;
+
+        private final int mask;
+
+        private LongObjectMap(int expectedSize)
+        {
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int indexOf(long key)
+        {
+            int index = mix(key) & mask;
+            while (values[index] != null && keys[index] != key)
+            {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V get(long key)
+        {
+            Object value = values[indexOf(key)];
+            return value == VISITED ? null : (V) value;
+        }
+
+        private boolean containsKey(long key)
+        {
+            return values[indexOf(key)] != null;
+        }
+
+        private void put(long key, V value)
+        {
+            int index = indexOf(key);
+            keys[index] = key;
+            values[index] = value;
+        }
+
+        /**
+         * 取出并标记已访问，保留槽位以免破坏探测链
+         */
+        @SuppressWarnings("unchecked")
+        private V remove(long key)
+        {
+            int index = indexOf(key);
+            Object value = values[index];
+            if (value != null)
+            {
+                values[index] = VISITED;
+            }
+            return value == VISITED ? null : (V) value;
+        }
+
+        private static int mix(long key)
+        {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /** 已访问的槽位 */
+    private static final Object VISITED = new Object();
+}
@@ -1,16 +1,16 @@
 package com.ruoyi.common.utils.ip;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONObject;
 import com.ruoyi.common.config.RuoYiConfig;
-import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.utils.StringUtils;
-import com.ruoyi.common.utils.http.HttpUtils;
 
 /**
  * 获取地址类
+ * 使用本地IP地址库离线查询，不再请求外部网站；地址库在应用启动时加载，查询为内存中的二分查找，不再另加缓存
  * 
  * @author ruoyi
  */
@@ -18,12 +18,16 @@ public class AddressUtils
 {
     private static final Logger log = LoggerFactory.getLogger(AddressUtils.class);
 
-    // IP地址查询
-    public static final String IP_URL = "http://whois.pconline.com.cn/ipJson.jsp";
-
     // 未知地址
     public static final String UNKNOWN = "XX XX";
 
+    // 类路径资源前缀
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static volatile IpRegionSearcher searcher;
+
+    private static volatile boolean loaded;
+
     public static String getRealAddressByIP(String ip)
     {
         // 内网不查询
@@ -33,24 +37,67 @@ public class AddressUtils
         }
         if (RuoYiConfig.isAddressEnabled())
         {
-            try
+            IpRegionSearcher regionSearcher = getSearcher();
+            if (regionSearcher != null)
             {
-                String rspStr = HttpUtils.sendGet(IP_URL, "ip=" + ip + "&json=true", Constants.GBK);
-                if (StringUtils.isEmpty(rspStr))
+                return StringUtils.nvl(regionSearcher.search(ip), UNKNOWN);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 加载地址库，应用启动时调用，避免首次查询时在请求线程中解析数据文件
+     */
+    public static void init()
+    {
+        getSearcher();
+    }
+
+    /**
+     * 获取地址库，未在启动时加载则首次调用时加载，加载失败后不再重试
+     */
+    private static IpRegionSearcher getSearcher()
+    {
+        if (!loaded)
+        {
+            synchronized (AddressUtils.class)
+            {
+                if (!loaded)
                 {
-                    log.error("获取地理位置异常 {}", ip);
-                    return UNKNOWN;
+                    searcher = loadSearcher(RuoYiConfig.getAddressDatabase());
+                    loaded = true;
                 }
-                JSONObject obj = JSON.parseObject(rspStr);
-                String region = obj.getString("pro");
-                String city = obj.getString("city");
-                return String.format("%s %s", region, city);
             }
-            catch (Exception e)
+        }
+        return searcher;
+    }
+
+    private static IpRegionSearcher loadSearcher(String path)
+    {
+        if (StringUtils.isEmpty(path))
+        {
+            log.warn("未配置IP地址库（ruoyi.addressDatabase），地理位置均返回未知");
+            return null;
+        }
+        long start = System.currentTimeMillis();
+        try (InputStream in = path.startsWith(CLASSPATH_PREFIX)
+                ? AddressUtils.class.getClassLoader().getResourceAsStream(path.substring(CLASSPATH_PREFIX.length()))
+                : Files.newInputStream(Paths.get(path)))
+        {
+            if (in == null)
             {
-                log.error("获取地理位置异常 {}", ip);
+                log.error("IP地址库{}不存在", path);
+                return null;
             }
+            IpRegionSearcher regionSearcher = IpRegionSearcher.load(in);
+            log.info("加载IP地址库{}，共{}个地址段，耗时{}毫秒", path, regionSearcher.size(), System.currentTimeMillis() - start);
+            return regionSearcher;
+        }
+        catch (Exception e)
+        {
+            log.error("加载IP地址库{}异常", path, e);
+            return null;
         }
-        return UNKNOWN;
     }
 }
@@ -0,0 +1,258 @@
+package com.ruoyi.common.utils.ip;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 离线IP地址库
+ * 地址段按起始IP升序保存在基本类型数组中（IPv4按无符号整数比较），查询时二分查找，地区名称去重后按下标引用。
+ *
+ * 数据文件每行一个地址段，以 | 分隔：起始IP|结束IP|省份|城市，
+ * 也兼容 ip2region 的原始数据格式：起始IP|结束IP|国家|区域|省份|城市|运营商（值为0表示未知）
+ *
+ * @author ruoyi
+ */
+public class IpRegionSearcher
+{
+    /** 各地址段的起始IP */
+    private final int[] starts;
+
+    /** 各地址段的结束IP */
+    private final int[] ends;
+
+    /** 各地址段的地区下标 */
+    private final int[] regionIndexes;
+
+    /** 去重后的地区名称 */
+    private final String[] regions;
+
+    private IpRegionSearcher(int[] starts, int[] ends, int[] regionIndexes, String[] regions)
+    {
+        this.starts = starts;
+        this.ends = ends;
+        this.regionIndexes = regionIndexes;
+        this.regions = regions;
+    }
+
+    /**
+     * 从数据文件加载
+     *
+     * @param in 输入流
+     * @return 地址库
+     */
+    public static IpRegionSearcher load(InputStream in) throws IOException
+    {
+        IntList startList = new IntList();
+        IntList endList = new IntList();
+        IntList indexList = new IntList();
+        Map<String, Integer> regionMap = new HashMap<>();
+        List<String> regionList = new ArrayList<>();
+        boolean sorted = true;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                String[] columns = line.trim().split("\\|", -1);
+                if (columns.length < 4)
+                {
+                    continue;
+                }
+                long start = toLong(columns[0]);
+                long end = toLong(columns[1]);
+                if (start < 0 || end < start)
+                {
+                    continue;
+                }
+                String region = columns.length >= 7 ? joinRegion(columns[4], columns[5]) : joinRegion(columns[2], columns[3]);
+                Integer index = regionMap.get(region);
+                if (index == null)
+                {
+                    index = regionList.size();
+                    regionMap.put(region, index);
+                    regionList.add(region);
+                }
+                if (startList.size > 0 && Integer.toUnsignedLong(startList.get(startList.size - 1)) > start)
+                {
+                    sorted = false;
+                }
+                startList.add((int) start);
+                endList.add((int) end);
+                indexList.add(index);
+            }
+        }
+        int[] starts = startList.toArray();
+        int[] ends = endList.toArray();
+        int[] regionIndexes = indexList.toArray();
+        if (!sorted)
+        {
+            // 高32位为起始IP、低32位为原下标，排序后即为按起始IP排列的下标；
+            // 翻转符号位使有符号排序与起始IP的无符号顺序一致（128.0.0.0及以上的起始IP会占用符号位）
+            long[] keys = new long[starts.length];
+            for (int i = 0; i < keys.length; i++)
+            {
+                keys[i] = (Integer.toUnsignedLong(starts[i]) << 32 | i) ^ Long.MIN_VALUE;
+            }
+            Arrays.sort(keys);
+            int[] sortedStarts = new int[starts.length];
+            int[] sortedEnds = new int[ends.length];
+            int[] sortedIndexes = new int[regionIndexes.length];
+            for (int i = 0; i < keys.length; i++)
+            {
+                int origin = (int) keys[i];
+                sortedStarts[i] = starts[origin];
+                sortedEnds[i] = ends[origin];
+                sortedIndexes[i] = regionIndexes[origin];
+            }
+            starts = sortedStarts;
+            ends = sortedEnds;
+            regionIndexes = sortedIndexes;
+        }
+        return new IpRegionSearcher(starts, ends, regionIndexes, regionList.toArray(new String[0]));
+    }
+
+    /**
+     * 查询IP所在地区
+     *
+     * @param ip IPv4地址
+     * @return 地区（省份 城市），未收录返回null
+     */
+    public String search(String ip)
+    {
+        long value = toLong(ip);
+        return value < 0 ? null : search((int) value);
+    }
+
+    /**
+     * 查询IP所在地区
+     *
+     * @param ip IPv4地址的整数形式
+     * @return 地区（省份 城市），未收录返回null
+     */
+    public String search(int ip)
+    {
+        // 查找最后一个起始IP不大于ip的地址段
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(starts[mid], ip) <= 0)
+            {
+                found = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || Integer.compareUnsigned(ip, ends[found]) > 0)
+        {
+            return null;
+        }
+        String region = regions[regionIndexes[found]];
+        return region.isEmpty() ? null : region;
+    }
+
+    /**
+     * 地址段数量
+     */
+    public int size()
+    {
+        return starts.length;
+    }
+
+    /**
+     * IPv4地址转为无符号整数
+     *
+     * @param ip IPv4地址
+     * @return 整数值，格式不正确返回-1
+     */
+    public static long toLong(String ip)
+    {
+        if (ip == null)
+        {
+            return -1;
+        }
+        long result = 0;
+        int part = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++)
+        {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9')
+            {
+                part = (part < 0 ? 0 : part * 10) + (c - '0');
+                if (part > 255)
+                {
+                    return -1;
+                }
+            }
+            else if (c == '.' && part >= 0 && dots < 3)
+            {
+                result = result << 8 | part;
+                part = -1;
+                dots++;
+            }
+            else
+            {
+                return -1;
+            }
+        }
+        if (part < 0 || dots != 3)
+        {
+            return -1;
+        }
+        return result << 8 | part;
+    }
+
+    private static String joinRegion(String province, String city)
+    {
+        province = "0".equals(province) ? "" : province.trim();
+        city = "0".equals(city) ? "" : city.trim();
+        if (province.isEmpty() || province.equals(city))
+        {
+            return city;
+        }
+        return city.isEmpty() ? province : province + " " + city;
+    }
+
+    /**
+     * 加载时使用的可扩容int数组，避免装箱
+     */
+    private static final class IntList
+    {
+        private int[] values = new int[1024];
+
+        private int size;
+
+        private void add(int value)
+        {
+            if (size == values.length)
+            {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        private int get(int index)
+        {
+            return values[index];
+        }
+
+        private int[] toArray()
+        {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ruoyi.common.utils.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * 带缓存的JWT解析器
+ * 验签通过的token按 SHA-256 摘要缓存解析结果，条目存活时间取 最大缓存时间 与 token的exp 的较小值，
+ * 过期后重新解析由jjwt抛出过期异常；验签失败的token不缓存
+ *
+ * @author ruoyi
+ */
+public class JwtTokenParser
+{
+    private final String secret;
+
+    /** 最大缓存条目数 */
+    private final int maxSize;
+
+    /** 最大缓存时间（毫秒） */
+    private final long maxTtl;
+
+    /** token摘要 -> 缓存条目 */
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    public JwtTokenParser(String secret, int maxSize, long maxTtl)
+    {
+        this.secret = secret;
+        this.maxSize = maxSize;
+        this.maxTtl = maxTtl;
+    }
+
+    /**
+     * 解析并验证token
+     *
+     * @param token token
+     * @return 解析结果
+     * @throws io.jsonwebtoken.JwtException token无效或已过期
+     * @throws IllegalArgumentException token为空
+     */
+    public ParsedToken parse(String token)
+    {
+        if (maxSize <= 0)
+        {
+            return new ParsedToken(parseClaims(token));
+        }
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(key);
+        if (entry != null)
+        {
+            if (entry.expireAt > now)
+            {
+                return entry.parsedToken;
+            }
+            cache.remove(key, entry);
+        }
+
+        ParsedToken parsedToken = new ParsedToken(parseClaims(token));
+        long expireAt = now + maxTtl;
+        Date expiration = parsedToken.getExpiration();
+        if (expiration != null && expiration.getTime() < expireAt)
+        {
+            expireAt = expiration.getTime();
+        }
+        cache.put(key, new Entry(parsedToken, expireAt));
+        if (cache.size() > maxSize)
+        {
+            evict(now);
+        }
+        return parsedToken;
+    }
+
+    /**
+     * 当前缓存条目数
+     */
+    public int size()
+    {
+        return cache.size();
+    }
+
+    private Claims parseClaims(String token)
+    {
+        return Jwts.parser()
+                .setSigningKey(secret)
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static String digest(String token)
+    {
+        try
+        {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 先清理过期条目，仍超出上限时再淘汰部分存量条目
+     */
+    private void evict(long now)
+    {
+        if (!evictLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            cache.values().removeIf(entry -> entry.expireAt <= now);
+            Iterator<String> iterator = cache.keySet().iterator();
+            while (cache.size() > maxSize && iterator.hasNext())
+            {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        finally
+        {
+            evictLock.unlock();
+        }
+    }
+
+    private static final class Entry
+    {
+        private final ParsedToken parsedToken;
+        private final long expireAt;
+
+        private Entry(ParsedToken parsedToken, long expireAt)
+        {
+            this.parsedToken = parsedToken;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.ruoyi.common.utils.jwt;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -36,6 +36,26 @@ public class JwtUtils
     @Value("${jwt.refresh-token-expire:10080}")
     private int refreshTokenExpire;
 
+    /**
+     * 已验签token的缓存条目数
+     */
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    /**
+     * 已验签token的最大缓存时间（默认10分钟，单位：分钟）
+     */
+    @Value("${jwt.claims-cache-expire:10}")
+    private int claimsCacheExpire;
+
+    private JwtTokenParser tokenParser;
+
+    @PostConstruct
+    public void init()
+    {
+        tokenParser = new JwtTokenParser(secret, claimsCacheSize, claimsCacheExpire * 60 * 1000L);
+    }
+
     /**
      * Token类型标识
      */
@@ -61,30 +81,16 @@ public class JwtUtils
     }
 
     /**
-     * 从token中获取用户ID
+     * 解析token，同一token在缓存有效期内只验签一次
      *
      * @param token token
-     * @return 用户ID
+     * @return 解析结果，token无效或已过期时返回null
      */
-    public Long getUserIdFromToken(String token)
+    public ParsedToken parse(String token)
     {
         try
         {
-            Claims claims = parseToken(token);
-            Object userIdObj = claims.get(USER_ID_KEY);
-            if (userIdObj instanceof Integer)
-            {
-                return ((Integer) userIdObj).longValue();
-            }
-            else if (userIdObj instanceof Long)
-            {
-                return (Long) userIdObj;
-            }
-            else if (userIdObj instanceof String)
-            {
-                return Long.parseLong((String) userIdObj);
-            }
-            return null;
+            return tokenParser.parse(token);
         }
         catch (Exception e)
         {
@@ -92,6 +98,18 @@ public class JwtUtils
         }
     }
 
+    /**
+     * 从token中获取用户ID
+     *
+     * @param token token
+     * @return 用户ID
+     */
+    public Long getUserIdFromToken(String token)
+    {
+        ParsedToken parsedToken = parse(token);
+        return parsedToken != null ? parsedToken.getLong(USER_ID_KEY) : null;
+    }
+
     /**
      * 从token中获取用户名
      *
@@ -100,15 +118,8 @@ public class JwtUtils
      */
     public String getUsernameFromToken(String token)
     {
-        try
-        {
-            Claims claims = parseToken(token);
-            return (String) claims.get(USERNAME_KEY);
-        }
-        catch (Exception e)
-        {
-            return null;
-        }
+        ParsedToken parsedToken = parse(token);
+        return parsedToken != null ? parsedToken.getString(USERNAME_KEY) : null;
     }
 
     /**
@@ -119,15 +130,8 @@ public class JwtUtils
      */
     public String getTokenTypeFromToken(String token)
     {
-        try
-        {
-            Claims claims = parseToken(token);
-            return (String) claims.get(TOKEN_TYPE_KEY);
-        }
-        catch (Exception e)
-        {
-            return null;
-        }
+        ParsedToken parsedToken = parse(token);
+        return parsedToken != null ? parsedToken.getString(TOKEN_TYPE_KEY) : null;
     }
 
     /**
@@ -138,11 +142,19 @@ public class JwtUtils
      */
     public boolean isRefreshToken(String token)
     {
-        String tokenType = getTokenTypeFromToken(token);
-        return TOKEN_TYPE_REFRESH.equals(tokenType);
+        return isRefreshToken(parse(token));
     }
 
-
+    /**
+     * 验证已解析的token是否为Refresh Token
+     *
+     * @param parsedToken 解析结果
+     * @return 是否为Refresh Token
+     */
+    public boolean isRefreshToken(ParsedToken parsedToken)
+    {
+        return parsedToken != null && TOKEN_TYPE_REFRESH.equals(parsedToken.getString(TOKEN_TYPE_KEY));
+    }
 
     /**
      * 验证token是否过期
@@ -152,19 +164,10 @@ public class JwtUtils
      */
     public boolean isTokenExpired(String token)
     {
-        try
-        {
-            Claims claims = parseToken(token);
-            Date expiration = claims.getExpiration();
-            return expiration.before(new Date());
-        }
-        catch (Exception e)
-        {
-            return true;
-        }
+        ParsedToken parsedToken = parse(token);
+        return parsedToken == null || parsedToken.isExpired();
     }
 
-
     /**
      * 获取Refresh Token有效时间（分钟）
      *
@@ -192,18 +195,4 @@ public class JwtUtils
                 .signWith(SignatureAlgorithm.HS512, secret)
                 .compact();
     }
-
-    /**
-     * 从token中获取Claims
-     *
-     * @param token token
-     * @return Claims
-     */
-    private Claims parseToken(String token)
-    {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.ruoyi.common.utils.jwt;
+
+import java.util.Date;
+import io.jsonwebtoken.Claims;
+
+/**
+ * 已验签的JWT，同一个token只解析一次，后续读取声明不再重复验签
+ *
+ * @author ruoyi
+ */
+public final class ParsedToken
+{
+    private final Claims claims;
+
+    public ParsedToken(Claims claims)
+    {
+        this.claims = claims;
+    }
+
+    /**
+     * 获取全部声明（只读使用）
+     *
+     * @return 声明
+     */
+    public Claims getClaims()
+    {
+        return claims;
+    }
+
+    /**
+     * 获取字符串声明
+     *
+     * @param key 声明名称
+     * @return 声明值
+     */
+    public String getString(String key)
+    {
+        Object value = claims.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 获取数值声明，兼容Integer、Long与字符串形式
+     *
+     * @param key 声明名称
+     * @return 声明值，无法转换时返回null
+     */
+    public Long getLong(String key)
+    {
+        Object value = claims.get(key);
+        if (value instanceof Number)
+        {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String)
+        {
+            try
+            {
+                return Long.parseLong((String) value);
+            }
+            catch (NumberFormatException e)
+            {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取过期时间
+     *
+     * @return 过期时间，为null表示未设置exp
+     */
+    public Date getExpiration()
+    {
+        return claims.getExpiration();
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired()
+    {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ruoyi.feign.config;
+
+import com.ruoyi.feign.service.LocalAuthValidator;
+import com.ruoyi.feign.service.RemoteAuthBatchCoalescer;
+import com.ruoyi.feign.service.RemoteAuthDecisionCache;
+import com.ruoyi.feign.service.RemoteAuthFeignService;
+import com.ruoyi.feign.service.RemoteAuthValidator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 远程鉴权客户端配置类，MVC与WebFlux环境共用
+ *
+ * @author Saltyfish
+ */
+@Configuration
+public class RemoteAuthClientConfiguration {
+
+    /**
+     * 鉴权结果本地缓存
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RemoteAuthDecisionCache remoteAuthDecisionCache(RemoteAuthProperties remoteAuthProperties) {
+        return new RemoteAuthDecisionCache(remoteAuthProperties.getCache());
+    }
+
+    /**
+     * 鉴权请求合并器，配置 ruoyi.remote-auth.batch.enabled=true 时开启
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ruoyi.remote-auth.batch", name = "enabled", havingValue = "true")
+    public RemoteAuthBatchCoalescer remoteAuthBatchCoalescer(@Lazy RemoteAuthFeignService remoteAuthFeignService,
+        RemoteAuthProperties remoteAuthProperties) {
+        return new RemoteAuthBatchCoalescer(remoteAuthFeignService, remoteAuthProperties.getBatch());
+    }
+
+    /**
+     * 本地鉴权校验器，配置 ruoyi.remote-auth.local.enabled=true 时开启
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ruoyi.remote-auth.local", name = "enabled", havingValue = "true")
+    public LocalAuthValidator localAuthValidator(StringRedisTemplate stringRedisTemplate,
+        RemoteAuthProperties remoteAuthProperties) {
+        return new LocalAuthValidator(stringRedisTemplate, remoteAuthProperties.getLocal());
+    }
+
+    /**
+     * 远程鉴权校验器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RemoteAuthValidator remoteAuthValidator(@Lazy RemoteAuthFeignService remoteAuthFeignService,
+        RemoteAuthDecisionCache remoteAuthDecisionCache,
+        ObjectProvider<RemoteAuthBatchCoalescer> remoteAuthBatchCoalescer,
+        ObjectProvider<LocalAuthValidator> localAuthValidator,
+        RemoteAuthProperties remoteAuthProperties) {
+        return new RemoteAuthValidator(remoteAuthFeignService, remoteAuthDecisionCache,
+            remoteAuthBatchCoalescer.getIfAvailable(), remoteAuthProperties.getBatch().getTimeout(),
+            localAuthValidator.getIfAvailable());
+    }
+}
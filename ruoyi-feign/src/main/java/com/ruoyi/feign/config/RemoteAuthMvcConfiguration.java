@@ -1,12 +1,11 @@
 package com.ruoyi.feign.config;
 
 import com.ruoyi.feign.filter.RemoteAuthFilter;
-import com.ruoyi.feign.service.RemoteAuthFeignService;
+import com.ruoyi.feign.service.RemoteAuthValidator;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 /**
@@ -22,9 +21,9 @@ public class RemoteAuthMvcConfiguration {
      * MVC环境下的Filter配置
      */
     @Bean
-    public RemoteAuthFilter remoteAuthFilter(@Lazy RemoteAuthFeignService remoteAuthFeignService,
+    public RemoteAuthFilter remoteAuthFilter(RemoteAuthValidator remoteAuthValidator,
         @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
         RemoteAuthProperties remoteAuthProperties) {
-        return new RemoteAuthFilter(remoteAuthFeignService, handlerMapping, remoteAuthProperties);
+        return new RemoteAuthFilter(remoteAuthValidator, handlerMapping, remoteAuthProperties);
     }
 }
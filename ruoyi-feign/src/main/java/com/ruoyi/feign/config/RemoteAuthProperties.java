@@ -1,8 +1,11 @@
 package com.ruoyi.feign.config;
 
+import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.utils.StringUtils;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * 远程鉴权配置属性
  *
@@ -17,6 +20,26 @@ public class RemoteAuthProperties {
      */
     private String secret;
 
+    /**
+     * 鉴权结果本地缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 鉴权请求合并配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * WebFlux环境下的响应式鉴权客户端配置
+     */
+    private Reactive reactive = new Reactive();
+
+    /**
+     * 本地鉴权配置
+     */
+    private Local local = new Local();
+
     public String getSecret() {
         return secret;
     }
@@ -25,6 +48,38 @@ public class RemoteAuthProperties {
         this.secret = secret;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
+    public void setReactive(Reactive reactive) {
+        this.reactive = reactive;
+    }
+
+    public Local getLocal() {
+        return local;
+    }
+
+    public void setLocal(Local local) {
+        this.local = local;
+    }
+
     /**
      * 判断是否开启内部鉴权
      *
@@ -33,4 +88,302 @@ public class RemoteAuthProperties {
     public boolean isEnabled() {
         return StringUtils.isNotEmpty(secret);
     }
+
+    /**
+     * 鉴权结果缓存配置，缓存键为 (token, 权限表达式)
+     */
+    public static class Cache {
+
+        /**
+         * 是否开启鉴权结果缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条目数
+         */
+        private int maxSize = 10000;
+
+        /**
+         * 鉴权通过结果的缓存时间
+         */
+        private Duration ttl = Duration.ofSeconds(10);
+
+        /**
+         * 鉴权拒绝结果的缓存时间，小于等于0表示不缓存拒绝结果
+         */
+        private Duration negativeTtl = Duration.ofSeconds(3);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+    }
+
+    /**
+     * 鉴权请求合并配置，时间窗口内同一token的并发校验合并为一次批量调用
+     */
+    public static class Batch {
+
+        /**
+         * 是否开启请求合并
+         */
+        private boolean enabled = false;
+
+        /**
+         * 合并时间窗口
+         */
+        private Duration window = Duration.ofMillis(5);
+
+        /**
+         * 单次批量调用的最大表达式数，达到后立即发送
+         */
+        private int maxSize = 32;
+
+        /**
+         * 等待批量结果的超时时间
+         */
+        private Duration timeout = Duration.ofSeconds(3);
+
+        /**
+         * 执行批量调用的线程数
+         */
+        private int threads = 4;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+
+    /**
+     * 响应式鉴权客户端配置，基于WebClient连接池调用鉴权服务
+     */
+    public static class Reactive {
+
+        /**
+         * 鉴权服务基础地址，默认通过服务名负载均衡访问
+         */
+        private String baseUrl = "http://" + AuthFeignConstants.FEIGN_NAME + AuthFeignConstants.FEIGN_PREFIX;
+
+        /**
+         * 是否通过负载均衡解析服务名
+         */
+        private boolean loadBalanced = true;
+
+        /**
+         * 连接超时时间
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 响应超时时间
+         */
+        private Duration responseTimeout = Duration.ofSeconds(3);
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maxConnections = 200;
+
+        /**
+         * 等待获取连接的最大排队数，超出后立即失败
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * 等待获取连接的超时时间
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+
+        /**
+         * 空闲连接最大存活时间
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public boolean isLoadBalanced() {
+            return loadBalanced;
+        }
+
+        public void setLoadBalanced(boolean loadBalanced) {
+            this.loadBalanced = loadBalanced;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+    }
+
+    /**
+     * 本地鉴权配置，开启后直接校验JWT并从共享Redis读取登录用户，在本进程内计算权限表达式，
+     * Redis不可用时可回退为远程鉴权
+     */
+    public static class Local {
+
+        /**
+         * 是否开启本地鉴权
+         */
+        private boolean enabled = false;
+
+        /**
+         * JWT密钥，需与鉴权服务的 jwt.secret 一致
+         */
+        private String jwtSecret;
+
+        /**
+         * 登录用户缓存key前缀，需与鉴权服务一致
+         */
+        private String tokenKeyPrefix = CacheConstants.LOGIN_TOKEN_KEY;
+
+        /**
+         * 本地鉴权不可用（Redis异常、数据无法解析）时是否回退为远程鉴权
+         */
+        private boolean fallbackToRemote = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getJwtSecret() {
+            return jwtSecret;
+        }
+
+        public void setJwtSecret(String jwtSecret) {
+            this.jwtSecret = jwtSecret;
+        }
+
+        public String getTokenKeyPrefix() {
+            return tokenKeyPrefix;
+        }
+
+        public void setTokenKeyPrefix(String tokenKeyPrefix) {
+            this.tokenKeyPrefix = tokenKeyPrefix;
+        }
+
+        public boolean isFallbackToRemote() {
+            return fallbackToRemote;
+        }
+
+        public void setFallbackToRemote(boolean fallbackToRemote) {
+            this.fallbackToRemote = fallbackToRemote;
+        }
+    }
 }
@@ -1,17 +1,30 @@
 package com.ruoyi.feign.config;
 
 import com.ruoyi.feign.filter.RemoteAuthWebFilter;
-import com.ruoyi.feign.service.RemoteAuthFeignService;
+import com.ruoyi.feign.service.LocalAuthValidator;
+import com.ruoyi.feign.service.ReactiveRemoteAuthClient;
+import com.ruoyi.feign.service.ReactiveRemoteAuthValidator;
+import com.ruoyi.feign.service.RemoteAuthDecisionCache;
 import com.ruoyi.feign.util.WebFluxRouteUtil;
+import io.netty.channel.ChannelOption;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.util.List;
 
@@ -24,6 +37,8 @@ import java.util.List;
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
 public class RemoteAuthWebFluxConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(RemoteAuthWebFluxConfiguration.class);
+
     private final ApplicationContext applicationContext;
 
     public RemoteAuthWebFluxConfiguration(ApplicationContext applicationContext) {
@@ -34,9 +49,67 @@ public class RemoteAuthWebFluxConfiguration {
      * WebFlux环境下的Filter配置
      */
     @Bean
-    public RemoteAuthWebFilter remoteAuthWebFilter(@Lazy RemoteAuthFeignService remoteAuthFeignService,
+    public RemoteAuthWebFilter remoteAuthWebFilter(ReactiveRemoteAuthValidator reactiveRemoteAuthValidator,
         RemoteAuthProperties remoteAuthProperties) {
-        return new RemoteAuthWebFilter(remoteAuthFeignService, remoteAuthProperties);
+        return new RemoteAuthWebFilter(reactiveRemoteAuthValidator, remoteAuthProperties);
+    }
+
+    /**
+     * 响应式鉴权客户端专用连接池，排队数超出上限时立即失败，避免请求无限堆积
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean(name = "remoteAuthConnectionProvider")
+    public ConnectionProvider remoteAuthConnectionProvider(RemoteAuthProperties remoteAuthProperties) {
+        RemoteAuthProperties.Reactive reactive = remoteAuthProperties.getReactive();
+        return ConnectionProvider.builder("remote-auth")
+            .maxConnections(reactive.getMaxConnections())
+            .pendingAcquireMaxCount(reactive.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(reactive.getPendingAcquireTimeout())
+            .maxIdleTime(reactive.getMaxIdleTime())
+            .build();
+    }
+
+    /**
+     * 响应式鉴权客户端
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveRemoteAuthClient reactiveRemoteAuthClient(RemoteAuthProperties remoteAuthProperties,
+        ConnectionProvider remoteAuthConnectionProvider,
+        ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerFilter) {
+        RemoteAuthProperties.Reactive reactive = remoteAuthProperties.getReactive();
+        HttpClient httpClient = HttpClient.create(remoteAuthConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) reactive.getConnectTimeout().toMillis())
+            .responseTimeout(reactive.getResponseTimeout());
+        WebClient.Builder builder = WebClient.builder()
+            .baseUrl(reactive.getBaseUrl())
+            .clientConnector(new ReactorClientHttpConnector(httpClient));
+        if (reactive.isLoadBalanced()) {
+            ReactorLoadBalancerExchangeFilterFunction filter = loadBalancerFilter.getIfAvailable();
+            if (filter != null) {
+                builder.filter(filter);
+            } else {
+                log.warn("未找到负载均衡组件，响应式鉴权客户端将直接访问 {}", reactive.getBaseUrl());
+            }
+        }
+        return new ReactiveRemoteAuthClient(builder.build());
+    }
+
+    /**
+     * 响应式鉴权校验器，开启本地鉴权时使用响应式Redis客户端读取登录用户
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveRemoteAuthValidator reactiveRemoteAuthValidator(ReactiveRemoteAuthClient reactiveRemoteAuthClient,
+        RemoteAuthDecisionCache remoteAuthDecisionCache,
+        ObjectProvider<LocalAuthValidator> localAuthValidator,
+        ObjectProvider<ReactiveStringRedisTemplate> reactiveStringRedisTemplate) {
+        LocalAuthValidator local = localAuthValidator.getIfAvailable();
+        ReactiveStringRedisTemplate redisTemplate = reactiveStringRedisTemplate.getIfAvailable();
+        if (local != null && redisTemplate == null) {
+            log.warn("未找到ReactiveStringRedisTemplate，WebFlux环境下本地鉴权不生效");
+        }
+        return new ReactiveRemoteAuthValidator(reactiveRemoteAuthClient, remoteAuthDecisionCache, local, redisTemplate);
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.ruoyi.feign.dto;
+
+import java.util.List;
+
+/**
+ * 批量权限验证请求DTO
+ * 
+ * @author Saltyfish
+ */
+public class AuthBatchValidateRequest {
+    private String token;
+    private List<String> expressions;
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public List<String> getExpressions() {
+        return expressions;
+    }
+    
+    public void setExpressions(List<String> expressions) {
+        this.expressions = expressions;
+    }
+}
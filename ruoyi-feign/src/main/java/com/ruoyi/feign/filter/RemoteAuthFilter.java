@@ -1,13 +1,9 @@
 package com.ruoyi.feign.filter;
 
 import com.alibaba.fastjson2.JSON;
-import com.ruoyi.common.annotation.Anonymous;
-import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.utils.StringUtils;
-import com.ruoyi.feign.annotation.RemotePreAuthorize;
 import com.ruoyi.feign.config.RemoteAuthProperties;
-import com.ruoyi.feign.dto.AuthValidateRequest;
-import com.ruoyi.feign.service.RemoteAuthFeignService;
+import com.ruoyi.feign.service.RemoteAuthValidator;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,14 +30,17 @@ public class RemoteAuthFilter extends OncePerRequestFilter {
 
     private static final String INTERNAL_AUTH_HEADER = "X-Internal-Auth-Secret";
 
-    private final RemoteAuthFeignService remoteAuthFeignService;
+    private final RemoteAuthValidator remoteAuthValidator;
     private final RequestMappingHandlerMapping handlerMapping;
     private final RemoteAuthProperties remoteAuthProperties;
 
-    public RemoteAuthFilter(RemoteAuthFeignService remoteAuthFeignService,
+    /** 鉴权策略索引 */
+    private volatile RemoteAuthHandlerIndex handlerIndex;
+
+    public RemoteAuthFilter(RemoteAuthValidator remoteAuthValidator,
         RequestMappingHandlerMapping handlerMapping,
         RemoteAuthProperties remoteAuthProperties) {
-        this.remoteAuthFeignService = remoteAuthFeignService;
+        this.remoteAuthValidator = remoteAuthValidator;
         this.handlerMapping = handlerMapping;
         this.remoteAuthProperties = remoteAuthProperties;
     }
@@ -50,18 +49,17 @@ public class RemoteAuthFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
         throws ServletException, IOException {
 
-        // 1. 获取请求映射的方法
-        HandlerMethod handlerMethod = getHandlerMethod(request);
-        if (handlerMethod == null) {
+        // 1. 获取请求映射方法的鉴权策略
+        RemoteAuthPolicy policy = resolvePolicy(request);
+        if (policy == null) {
             chain.doFilter(request, response);
             return;
         }
 
         // 2. 检查方法或类上是否有@RemotePreAuthorize注解
-        RemotePreAuthorize annotation = getRemotePreAuthorizeAnnotation(handlerMethod);
-        if (annotation == null) {
+        if (!policy.isProtected()) {
             // 没有@RemotePreAuthorize，检查是否有@Anonymous
-            if (hasAnonymousAnnotation(handlerMethod)) {
+            if (policy.isAnonymous()) {
                 chain.doFilter(request, response);
                 return;
             }
@@ -91,7 +89,7 @@ public class RemoteAuthFilter extends OncePerRequestFilter {
         }
 
         // 4. 执行远程权限验证
-        boolean hasPermission = validateRemotePermission(token, annotation.value());
+        boolean hasPermission = validateRemotePermission(token, policy.getExpression());
         if (!hasPermission) {
             handleAuthFailure(response, "权限不足");
             return;
@@ -101,6 +99,39 @@ public class RemoteAuthFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    /**
+     * 获取请求对应的鉴权策略
+     * 优先仅凭路径与HTTP方法在启动后构建的索引中查找，无法唯一确定时才通过HandlerMapping解析处理器
+     *
+     * @return 鉴权策略，为null表示请求未映射到Controller方法
+     */
+    private RemoteAuthPolicy resolvePolicy(HttpServletRequest request) {
+        RemoteAuthHandlerIndex index = getHandlerIndex();
+        RemoteAuthPolicy policy = index.lookup(request);
+        if (policy != null) {
+            return policy;
+        }
+        HandlerMethod handlerMethod = getHandlerMethod(request);
+        return handlerMethod != null ? index.getPolicy(handlerMethod) : null;
+    }
+
+    /**
+     * 获取鉴权策略索引，首次请求时构建（此时所有映射均已注册）
+     */
+    private RemoteAuthHandlerIndex getHandlerIndex() {
+        RemoteAuthHandlerIndex index = handlerIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = handlerIndex;
+                if (index == null) {
+                    index = RemoteAuthHandlerIndex.build(handlerMapping);
+                    handlerIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * 获取HandlerMethod
      */
@@ -120,34 +151,6 @@ public class RemoteAuthFilter extends OncePerRequestFilter {
         }
     }
 
-    /**
-     * 获取@RemotePreAuthorize注解
-     */
-    private RemotePreAuthorize getRemotePreAuthorizeAnnotation(HandlerMethod handlerMethod) {
-        // 先检查方法上的注解
-        RemotePreAuthorize methodAnnotation = handlerMethod.getMethodAnnotation(RemotePreAuthorize.class);
-        if (methodAnnotation != null) {
-            return methodAnnotation;
-        }
-
-        // 再检查类上的注解
-        return handlerMethod.getBeanType().getAnnotation(RemotePreAuthorize.class);
-    }
-
-    /**
-     * 检查是否有@Anonymous注解
-     */
-    private boolean hasAnonymousAnnotation(HandlerMethod handlerMethod) {
-        // 先检查方法上的注解
-        Anonymous methodAnnotation = handlerMethod.getMethodAnnotation(Anonymous.class);
-        if (methodAnnotation != null) {
-            return true;
-        }
-
-        // 再检查类上的注解
-        return handlerMethod.getBeanType().getAnnotation(Anonymous.class) != null;
-    }
-
     /**
      * 从请求中提取token
      */
@@ -171,18 +174,7 @@ public class RemoteAuthFilter extends OncePerRequestFilter {
      * 执行远程权限验证
      */
     private boolean validateRemotePermission(String token, String expression) {
-        try {
-            AuthValidateRequest request = new AuthValidateRequest();
-            request.setToken(token);
-            request.setExpression(expression);
-
-            AjaxResult result = remoteAuthFeignService.validatePermission(request);
-            return result.isSuccess();
-        } catch (Exception e) {
-            // 记录日志
-            System.err.println("远程权限验证失败: " + e.getMessage());
-            return false;
-        }
+        return remoteAuthValidator.validate(token, expression);
     }
 
     /**
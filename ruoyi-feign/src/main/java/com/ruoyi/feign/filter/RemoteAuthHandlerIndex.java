@@ -0,0 +1,184 @@
+package com.ruoyi.feign.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MVC环境下的接口鉴权策略索引，由RequestMappingHandlerMapping中已注册的映射一次性构建，构建后只读
+ * 1. 按Controller方法保存解析好的鉴权策略，避免每次请求反射读取注解
+ * 2. 按HTTP方法保存路径索引，仅由路径和请求方法即可确定鉴权策略，避免在Filter中重复解析完整的处理器链；
+ *    无法唯一确定时（含params/headers/consumes/produces条件、同等特异性的多个匹配、未命中）返回null，由调用方回退到HandlerMapping
+ *
+ * @author Saltyfish
+ */
+public final class RemoteAuthHandlerIndex {
+
+    /** Controller方法 -> 鉴权策略 */
+    private final Map<Method, RemoteAuthPolicy> policies;
+
+    /** HTTP方法 -> 路径索引，为空表示不启用路径索引 */
+    private final Map<RequestMethod, RouteIndex> routes;
+
+    private RemoteAuthHandlerIndex(Map<Method, RemoteAuthPolicy> policies, Map<RequestMethod, RouteIndex> routes) {
+        this.policies = policies;
+        this.routes = routes;
+    }
+
+    /**
+     * 根据HandlerMapping中已注册的映射构建索引
+     *
+     * @param handlerMapping 请求映射
+     * @return 鉴权策略索引
+     */
+    public static RemoteAuthHandlerIndex build(RequestMappingHandlerMapping handlerMapping) {
+        Map<Method, RemoteAuthPolicy> policies = new HashMap<>();
+        Map<RequestMethod, List<RouteEntry>> patternRoutes = new EnumMap<>(RequestMethod.class);
+        Map<RequestMethod, Map<String, RouteEntry>> exactRoutes = new EnumMap<>(RequestMethod.class);
+        // 仅在使用PathPatternParser时启用路径索引，保证匹配语义与Spring MVC一致
+        boolean pathIndexEnabled = handlerMapping.getPatternParser() != null;
+
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> mapping : handlerMapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo info = mapping.getKey();
+            HandlerMethod handlerMethod = mapping.getValue();
+            RemoteAuthPolicy policy = RemoteAuthPolicy.resolve(handlerMethod.getMethod(), handlerMethod.getBeanType());
+            policies.put(handlerMethod.getMethod(), policy);
+
+            if (!pathIndexEnabled || info.getPathPatternsCondition() == null) {
+                pathIndexEnabled = false;
+                continue;
+            }
+            boolean conditional = !info.getParamsCondition().isEmpty() || !info.getHeadersCondition().isEmpty()
+                || !info.getConsumesCondition().isEmpty() || !info.getProducesCondition().isEmpty()
+                || info.getCustomCondition() != null;
+            Set<RequestMethod> httpMethods = info.getMethodsCondition().getMethods();
+            if (httpMethods.isEmpty()) {
+                httpMethods = Set.of(RequestMethod.values());
+            }
+            for (PathPattern pattern : info.getPathPatternsCondition().getPatterns()) {
+                RouteEntry entry = new RouteEntry(pattern, policy, conditional);
+                for (RequestMethod httpMethod : httpMethods) {
+                    if (pattern.hasPatternSyntax()) {
+                        patternRoutes.computeIfAbsent(httpMethod, key -> new ArrayList<>()).add(entry);
+                    } else {
+                        // 同一路径与方法存在多个映射时无法仅凭路径区分，标记为需要回退
+                        exactRoutes.computeIfAbsent(httpMethod, key -> new HashMap<>())
+                            .merge(pattern.getPatternString(), entry, (a, b) -> new RouteEntry(a.pattern, a.policy, true));
+                    }
+                }
+            }
+        }
+
+        Map<RequestMethod, RouteIndex> routes = new EnumMap<>(RequestMethod.class);
+        if (pathIndexEnabled) {
+            for (RequestMethod httpMethod : RequestMethod.values()) {
+                List<RouteEntry> patterns = patternRoutes.getOrDefault(httpMethod, new ArrayList<>());
+                Map<String, RouteEntry> exact = exactRoutes.getOrDefault(httpMethod, Collections.emptyMap());
+                if (patterns.isEmpty() && exact.isEmpty()) {
+                    continue;
+                }
+                patterns.sort((a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern, b.pattern));
+                routes.put(httpMethod, new RouteIndex(Map.copyOf(exact), patterns.toArray(new RouteEntry[0])));
+            }
+        }
+        return new RemoteAuthHandlerIndex(Map.copyOf(policies), Collections.unmodifiableMap(routes));
+    }
+
+    /**
+     * 仅根据请求路径与HTTP方法查找鉴权策略
+     *
+     * @param request HTTP请求
+     * @return 鉴权策略，为null表示无法唯一确定，需要回退到HandlerMapping
+     */
+    public RemoteAuthPolicy lookup(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        RequestMethod httpMethod = RequestMethod.resolve(request.getMethod());
+        // HEAD/OPTIONS在Spring MVC中有隐式映射规则，不走路径索引
+        if (httpMethod == null || httpMethod == RequestMethod.HEAD || httpMethod == RequestMethod.OPTIONS) {
+            return null;
+        }
+        RouteIndex index = routes.get(httpMethod);
+        if (index == null) {
+            return null;
+        }
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
+        RouteEntry exact = index.exactRoutes.get(path.value());
+        if (exact != null) {
+            return exact.conditional ? null : exact.policy;
+        }
+        RouteEntry[] patterns = index.patternRoutes;
+        for (int i = 0; i < patterns.length; i++) {
+            if (!patterns[i].pattern.matches(path)) {
+                continue;
+            }
+            if (patterns[i].conditional) {
+                return null;
+            }
+            // 同等特异性的其他匹配说明存在歧义，交由Spring MVC判定
+            for (int j = i + 1; j < patterns.length
+                && PathPattern.SPECIFICITY_COMPARATOR.compare(patterns[i].pattern, patterns[j].pattern) == 0; j++) {
+                if (patterns[j].pattern.matches(path)) {
+                    return null;
+                }
+            }
+            return patterns[i].policy;
+        }
+        return null;
+    }
+
+    /**
+     * 获取Controller方法的鉴权策略
+     *
+     * @param handlerMethod 处理方法
+     * @return 鉴权策略
+     */
+    public RemoteAuthPolicy getPolicy(HandlerMethod handlerMethod) {
+        RemoteAuthPolicy policy = policies.get(handlerMethod.getMethod());
+        return policy != null ? policy : RemoteAuthPolicy.resolve(handlerMethod.getMethod(), handlerMethod.getBeanType());
+    }
+
+    /**
+     * 单个HTTP方法下的路由索引
+     */
+    private static final class RouteIndex {
+        private final Map<String, RouteEntry> exactRoutes;
+        private final RouteEntry[] patternRoutes;
+
+        private RouteIndex(Map<String, RouteEntry> exactRoutes, RouteEntry[] patternRoutes) {
+            this.exactRoutes = exactRoutes;
+            this.patternRoutes = patternRoutes;
+        }
+    }
+
+    /**
+     * 路由条目
+     */
+    private static final class RouteEntry {
+        private final PathPattern pattern;
+        private final RemoteAuthPolicy policy;
+        /** 是否包含路径与方法以外的匹配条件 */
+        private final boolean conditional;
+
+        private RouteEntry(PathPattern pattern, RemoteAuthPolicy policy, boolean conditional) {
+            this.pattern = pattern;
+            this.policy = policy;
+            this.conditional = conditional;
+        }
+    }
+}
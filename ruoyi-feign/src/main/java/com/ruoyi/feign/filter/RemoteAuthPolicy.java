@@ -0,0 +1,75 @@
+package com.ruoyi.feign.filter;
+
+import com.ruoyi.common.annotation.Anonymous;
+import com.ruoyi.feign.annotation.RemotePreAuthorize;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 接口鉴权策略，启动时由@RemotePreAuthorize与@Anonymous注解解析得到，运行期不再反射读取注解
+ *
+ * @author Saltyfish
+ */
+public final class RemoteAuthPolicy {
+
+    /** 既没有@RemotePreAuthorize也没有@Anonymous的接口 */
+    private static final RemoteAuthPolicy UNCONFIGURED = new RemoteAuthPolicy(null, false);
+
+    /** 仅标注@Anonymous的接口 */
+    private static final RemoteAuthPolicy ANONYMOUS = new RemoteAuthPolicy(null, true);
+
+    /** 权限表达式，为null表示未标注@RemotePreAuthorize */
+    private final String expression;
+
+    /** 是否标注@Anonymous */
+    private final boolean anonymous;
+
+    private RemoteAuthPolicy(String expression, boolean anonymous) {
+        this.expression = expression;
+        this.anonymous = anonymous;
+    }
+
+    /**
+     * 解析接口鉴权策略，方法上的注解优先于类上的注解
+     *
+     * @param method 接口方法
+     * @param beanType 控制器类型
+     * @return 鉴权策略
+     */
+    public static RemoteAuthPolicy resolve(Method method, Class<?> beanType) {
+        RemotePreAuthorize remotePreAuthorize = AnnotatedElementUtils.findMergedAnnotation(method, RemotePreAuthorize.class);
+        if (remotePreAuthorize == null) {
+            remotePreAuthorize = beanType.getAnnotation(RemotePreAuthorize.class);
+        }
+        boolean anonymous = AnnotatedElementUtils.findMergedAnnotation(method, Anonymous.class) != null
+            || beanType.getAnnotation(Anonymous.class) != null;
+        if (remotePreAuthorize != null) {
+            return new RemoteAuthPolicy(remotePreAuthorize.value(), anonymous);
+        }
+        return anonymous ? ANONYMOUS : UNCONFIGURED;
+    }
+
+    /**
+     * 获取权限表达式
+     *
+     * @return 权限表达式，为null表示未标注@RemotePreAuthorize
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * 是否需要远程鉴权
+     */
+    public boolean isProtected() {
+        return expression != null;
+    }
+
+    /**
+     * 是否标注@Anonymous
+     */
+    public boolean isAnonymous() {
+        return anonymous;
+    }
+}
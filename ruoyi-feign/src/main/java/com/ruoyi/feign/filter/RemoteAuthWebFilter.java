@@ -1,13 +1,9 @@
 package com.ruoyi.feign.filter;
 
 import com.alibaba.fastjson2.JSON;
-import com.ruoyi.common.annotation.Anonymous;
-import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.common.utils.StringUtils;
-import com.ruoyi.feign.annotation.RemotePreAuthorize;
 import com.ruoyi.feign.config.RemoteAuthProperties;
-import com.ruoyi.feign.dto.AuthValidateRequest;
-import com.ruoyi.feign.service.RemoteAuthFeignService;
+import com.ruoyi.feign.service.ReactiveRemoteAuthValidator;
 import com.ruoyi.feign.util.WebFluxRouteUtil;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -19,9 +15,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,12 +30,12 @@ public class RemoteAuthWebFilter implements WebFilter {
 
     private static final String INTERNAL_AUTH_HEADER = "X-Internal-Auth-Secret";
 
-    private final RemoteAuthFeignService remoteAuthFeignService;
+    private final ReactiveRemoteAuthValidator remoteAuthValidator;
     private final RemoteAuthProperties remoteAuthProperties;
 
-    public RemoteAuthWebFilter(RemoteAuthFeignService remoteAuthFeignService,
+    public RemoteAuthWebFilter(ReactiveRemoteAuthValidator remoteAuthValidator,
         RemoteAuthProperties remoteAuthProperties) {
-        this.remoteAuthFeignService = remoteAuthFeignService;
+        this.remoteAuthValidator = remoteAuthValidator;
         this.remoteAuthProperties = remoteAuthProperties;
     }
 
@@ -50,17 +44,16 @@ public class RemoteAuthWebFilter implements WebFilter {
         ServerHttpRequest request = exchange.getRequest();
         ServerHttpResponse response = exchange.getResponse();
 
-        // 1. 获取请求映射的方法
-        Method handlerMethod = WebFluxRouteUtil.getHandlerMethod(exchange);
-        if (handlerMethod == null) {
+        // 1. 获取请求映射方法的鉴权策略（启动时已解析注解）
+        RemoteAuthPolicy policy = WebFluxRouteUtil.getAuthPolicy(exchange);
+        if (policy == null) {
             return chain.filter(exchange);
         }
 
         // 2. 检查方法或类上是否有@RemotePreAuthorize注解
-        RemotePreAuthorize annotation = getRemotePreAuthorizeAnnotation(handlerMethod);
-        if (annotation == null) {
+        if (!policy.isProtected()) {
             // 没有@RemotePreAuthorize，检查是否有@Anonymous
-            if (hasAnonymousAnnotation(handlerMethod)) {
+            if (policy.isAnonymous()) {
                 return chain.filter(exchange);
             }
             // 既没有@RemotePreAuthorize也没有@Anonymous，拒绝访问
@@ -85,7 +78,7 @@ public class RemoteAuthWebFilter implements WebFilter {
         }
 
         // 4. 执行远程权限验证
-        return validateRemotePermission(token, annotation.value())
+        return validateRemotePermission(token, policy.getExpression())
             .flatMap(hasPermission -> {
                 if (hasPermission) {
                     return chain.filter(exchange);
@@ -99,34 +92,6 @@ public class RemoteAuthWebFilter implements WebFilter {
             });
     }
 
-    /**
-     * 获取@RemotePreAuthorize注解
-     */
-    private RemotePreAuthorize getRemotePreAuthorizeAnnotation(Method handlerMethod) {
-        // 先检查方法上的注解
-        RemotePreAuthorize methodAnnotation = handlerMethod.getAnnotation(RemotePreAuthorize.class);
-        if (methodAnnotation != null) {
-            return methodAnnotation;
-        }
-
-        // 再检查类上的注解
-        return handlerMethod.getDeclaringClass().getAnnotation(RemotePreAuthorize.class);
-    }
-
-    /**
-     * 检查是否有@Anonymous注解
-     */
-    private boolean hasAnonymousAnnotation(Method handlerMethod) {
-        // 先检查方法上的注解
-        Anonymous methodAnnotation = handlerMethod.getAnnotation(Anonymous.class);
-        if (methodAnnotation != null) {
-            return true;
-        }
-
-        // 再检查类上的注解
-        return handlerMethod.getDeclaringClass().getAnnotation(Anonymous.class) != null;
-    }
-
     /**
      * 从请求中提取token
      */
@@ -148,22 +113,10 @@ public class RemoteAuthWebFilter implements WebFilter {
 
     /**
      * 执行远程权限验证
-     * 使用 subscribeOn(Schedulers.boundedElastic()) 将阻塞调用卸载到独立线程池
+     * 基于WebClient非阻塞调用，不占用额外线程
      */
     private Mono<Boolean> validateRemotePermission(String token, String expression) {
-        return Mono.fromCallable(() -> {
-            try {
-                AuthValidateRequest request = new AuthValidateRequest();
-                request.setToken(token);
-                request.setExpression(expression);
-
-                AjaxResult result = remoteAuthFeignService.validatePermission(request);
-                return result.isSuccess();
-            } catch (Exception e) {
-                System.err.println("远程权限验证失败: " + e.getMessage());
-                return false;
-            }
-        }).subscribeOn(Schedulers.boundedElastic());  // 关键修复：卸载到弹性线程池
+        return remoteAuthValidator.validate(token, expression);
     }
 
     /**
@@ -0,0 +1,104 @@
+package com.ruoyi.feign.service;
+
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.permission.PermissionDictionary;
+import com.ruoyi.common.core.permission.PermissionExpression;
+import com.ruoyi.common.core.redis.FastJson2BinaryRedisSerializer;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.jwt.JwtTokenParser;
+import com.ruoyi.feign.config.RemoteAuthProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 本地鉴权校验器
+ * 直接校验JWT签名，从与鉴权服务共享的Redis中读取登录用户，在本进程内使用与鉴权服务相同的 PermissionExpression 计算 @ss 权限表达式，
+ * 鉴权热路径上不再回调鉴权服务
+ *
+ * @author Saltyfish
+ */
+public class LocalAuthValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalAuthValidator.class);
+
+    /** 已验签token的缓存条目数 */
+    private static final int TOKEN_CACHE_SIZE = 10000;
+
+    /** 已验签token的最大缓存时间（毫秒） */
+    private static final long TOKEN_CACHE_TTL = 10 * 60 * 1000L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JwtTokenParser tokenParser;
+    private final String tokenKeyPrefix;
+    private final boolean fallbackToRemote;
+
+    public LocalAuthValidator(StringRedisTemplate redisTemplate, RemoteAuthProperties.Local properties) {
+        if (StringUtils.isEmpty(properties.getJwtSecret())) {
+            throw new IllegalStateException("开启本地鉴权需要配置 ruoyi.remote-auth.local.jwt-secret");
+        }
+        this.redisTemplate = redisTemplate;
+        this.tokenParser = new JwtTokenParser(properties.getJwtSecret(), TOKEN_CACHE_SIZE, TOKEN_CACHE_TTL);
+        this.tokenKeyPrefix = properties.getTokenKeyPrefix();
+        this.fallbackToRemote = properties.isFallbackToRemote();
+        // 登录用户的权限以权限字典编号保存，字典与会话位于同一个Redis
+        PermissionDictionary.setRedisTemplate(redisTemplate);
+    }
+
+    /**
+     * 本地校验token是否满足权限表达式
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return true表示鉴权通过
+     * @throws RuntimeException Redis不可用或登录用户数据无法解析时抛出，由调用方决定是否回退为远程鉴权
+     */
+    public boolean validate(String token, String expression) {
+        String sessionKey = getSessionKey(token);
+        if (sessionKey == null) {
+            return false;
+        }
+        byte[] rawKey = sessionKey.getBytes(StandardCharsets.UTF_8);
+        byte[] session = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        return evaluate(session, expression);
+    }
+
+    /**
+     * 校验JWT并获取登录用户的缓存key
+     *
+     * @param token 令牌
+     * @return 缓存key，token无效时返回null
+     */
+    public String getSessionKey(String token) {
+        try {
+            String uuid = tokenParser.parse(token).getString(Constants.LOGIN_USER_KEY);
+            return StringUtils.isEmpty(uuid) ? null : tokenKeyPrefix + uuid;
+        } catch (Exception e) {
+            log.debug("本地鉴权token无效: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 基于缓存的登录用户计算权限表达式
+     *
+     * @param session 缓存中的登录用户原始数据（JSON文本或二进制格式），为null表示会话不存在或已过期
+     * @param expression 权限表达式
+     * @return true表示鉴权通过
+     */
+    public boolean evaluate(byte[] session, String expression) {
+        if (session == null || session.length == 0) {
+            return false;
+        }
+        LoginUser loginUser = FastJson2BinaryRedisSerializer.decode(session, LoginUser.class);
+        return loginUser != null && PermissionExpression.evaluate(expression, loginUser);
+    }
+
+    public boolean isFallbackToRemote() {
+        return fallbackToRemote;
+    }
+}
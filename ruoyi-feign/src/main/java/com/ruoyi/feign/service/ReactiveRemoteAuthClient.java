@@ -0,0 +1,45 @@
+package com.ruoyi.feign.service;
+
+import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.feign.dto.AuthBatchValidateRequest;
+import com.ruoyi.feign.dto.AuthValidateRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式远程鉴权客户端，与 {@link RemoteAuthFeignService} 契约一致，基于WebClient非阻塞调用
+ *
+ * @author Saltyfish
+ */
+public class ReactiveRemoteAuthClient {
+
+    private final WebClient webClient;
+
+    public ReactiveRemoteAuthClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    /**
+     * 远程权限验证
+     */
+    public Mono<AjaxResult> validatePermission(AuthValidateRequest request) {
+        return post("/remote/auth/validate", request);
+    }
+
+    /**
+     * 批量远程权限验证，data为与expressions顺序一致的布尔列表
+     */
+    public Mono<AjaxResult> validatePermissionBatch(AuthBatchValidateRequest request) {
+        return post("/remote/auth/validate/batch", request);
+    }
+
+    private Mono<AjaxResult> post(String uri, Object body) {
+        return webClient.post()
+            .uri(uri)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(body)
+            .retrieve()
+            .bodyToMono(AjaxResult.class);
+    }
+}
@@ -0,0 +1,148 @@
+package com.ruoyi.feign.service;
+
+import com.ruoyi.feign.dto.AuthValidateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 响应式远程鉴权校验器，供WebFlux过滤器使用，全程不占用阻塞线程
+ * 与 {@link RemoteAuthValidator} 共用鉴权结果缓存，相同 (token, 权限表达式) 的并发校验共享同一次远程调用；
+ * 开启本地鉴权且存在响应式Redis客户端时，直接读取共享Redis在本进程内计算
+ *
+ * @author Saltyfish
+ */
+public class ReactiveRemoteAuthValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRemoteAuthValidator.class);
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final ReactiveRemoteAuthClient remoteAuthClient;
+    private final RemoteAuthDecisionCache decisionCache;
+    /** 本地鉴权校验器，为null表示不开启本地鉴权 */
+    private final LocalAuthValidator localAuthValidator;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    /** 进行中的远程校验 */
+    private final ConcurrentHashMap<String, Mono<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder collapsedCount = new LongAdder();
+
+    public ReactiveRemoteAuthValidator(ReactiveRemoteAuthClient remoteAuthClient, RemoteAuthDecisionCache decisionCache) {
+        this(remoteAuthClient, decisionCache, null, null);
+    }
+
+    public ReactiveRemoteAuthValidator(ReactiveRemoteAuthClient remoteAuthClient, RemoteAuthDecisionCache decisionCache,
+        LocalAuthValidator localAuthValidator, ReactiveStringRedisTemplate redisTemplate) {
+        this.remoteAuthClient = remoteAuthClient;
+        this.decisionCache = decisionCache;
+        this.localAuthValidator = redisTemplate != null ? localAuthValidator : null;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 校验token是否满足权限表达式，远程调用异常以错误信号返回
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return true表示鉴权通过
+     */
+    public Mono<Boolean> validate(String token, String expression) {
+        Boolean cached = decisionCache.get(token, expression);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (localAuthValidator != null) {
+            return validateLocal(token, expression);
+        }
+        return validateShared(token, expression);
+    }
+
+    /**
+     * 本地鉴权，Redis异常或数据无法解析时按配置回退为远程鉴权
+     */
+    private Mono<Boolean> validateLocal(String token, String expression) {
+        String sessionKey = localAuthValidator.getSessionKey(token);
+        if (sessionKey == null) {
+            decisionCache.put(token, expression, false);
+            return Mono.just(false);
+        }
+        ByteBuffer rawKey = ByteBuffer.wrap(sessionKey.getBytes(StandardCharsets.UTF_8));
+        return redisTemplate.createMono(connection -> connection.stringCommands().get(rawKey))
+            .map(session -> localAuthValidator.evaluate(toBytes(session), expression))
+            .defaultIfEmpty(false)
+            .doOnNext(permitted -> decisionCache.put(token, expression, permitted))
+            .onErrorResume(e -> {
+                if (!localAuthValidator.isFallbackToRemote()) {
+                    log.error("本地权限验证失败: {}", e.getMessage());
+                    return Mono.just(false);
+                }
+                log.warn("本地权限验证不可用，回退为远程鉴权: {}", e.getMessage());
+                return validateShared(token, expression);
+            });
+    }
+
+    /**
+     * 远程鉴权，相同校验进行中时复用其结果
+     */
+    private Mono<Boolean> validateShared(String token, String expression) {
+        String key = token + KEY_SEPARATOR + expression;
+        // 上一次调用结束（doFinally）前该key一直占位，因此remove只会移除本次放入的调用
+        Mono<Boolean> shared = Mono.defer(() -> validateRemote(token, expression))
+            .doFinally(signal -> inFlight.remove(key))
+            .cache();
+        Mono<Boolean> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            collapsedCount.increment();
+            return existing;
+        }
+        executedCount.increment();
+        return shared;
+    }
+
+    /**
+     * 实际发起远程调用的次数
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * 被合并到进行中调用的次数
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.sum();
+    }
+
+    public RemoteAuthDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private Mono<Boolean> validateRemote(String token, String expression) {
+        AuthValidateRequest request = new AuthValidateRequest();
+        request.setToken(token);
+        request.setExpression(expression);
+
+        return remoteAuthClient.validatePermission(request)
+            .map(result -> {
+                boolean permitted = result.isSuccess();
+                decisionCache.put(token, expression, permitted);
+                return permitted;
+            })
+            .defaultIfEmpty(false);
+    }
+}
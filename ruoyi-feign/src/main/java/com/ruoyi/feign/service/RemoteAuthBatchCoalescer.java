@@ -0,0 +1,161 @@
+package com.ruoyi.feign.service;
+
+import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.feign.config.RemoteAuthProperties;
+import com.ruoyi.feign.dto.AuthBatchValidateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 远程鉴权请求合并器
+ * 时间窗口内同一token的并发校验被合并为一次 /remote/auth/validate/batch 调用，
+ * 窗口到期或表达式数达到上限时发送
+ *
+ * @author Saltyfish
+ */
+public class RemoteAuthBatchCoalescer implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteAuthBatchCoalescer.class);
+
+    private final RemoteAuthFeignService remoteAuthFeignService;
+    private final long windowNanos;
+    private final int maxSize;
+    private final ScheduledThreadPoolExecutor executor;
+
+    /** 按token聚合的待发送批次 */
+    private final ConcurrentHashMap<String, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+
+    public RemoteAuthBatchCoalescer(RemoteAuthFeignService remoteAuthFeignService, RemoteAuthProperties.Batch properties) {
+        this.remoteAuthFeignService = remoteAuthFeignService;
+        this.windowNanos = Math.max(properties.getWindow().toNanos(), 0);
+        this.maxSize = Math.max(properties.getMaxSize(), 1);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(properties.getThreads(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "remote-auth-batch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 提交一次鉴权校验，与同一token的其他并发校验合并发送
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return 鉴权结论
+     */
+    public CompletableFuture<Boolean> submit(String token, String expression) {
+        requestCount.increment();
+        while (true) {
+            PendingBatch batch = pendingBatches.computeIfAbsent(token, PendingBatch::new);
+            CompletableFuture<Boolean> future = batch.add(expression, this);
+            if (future != null) {
+                return future;
+            }
+            // 批次已关闭，移除后重试
+            pendingBatches.remove(token, batch);
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 关闭批次并发送批量请求
+     */
+    private void flush(PendingBatch batch) {
+        Map<String, CompletableFuture<Boolean>> futures = batch.close();
+        pendingBatches.remove(batch.token, batch);
+        if (futures == null || futures.isEmpty()) {
+            return;
+        }
+        batchCount.increment();
+        List<String> expressions = new ArrayList<>(futures.keySet());
+        try {
+            AuthBatchValidateRequest request = new AuthBatchValidateRequest();
+            request.setToken(batch.token);
+            request.setExpressions(expressions);
+
+            AjaxResult result = remoteAuthFeignService.validatePermissionBatch(request);
+            Object data = result.isSuccess() ? result.get(AjaxResult.DATA_TAG) : null;
+            List<?> decisions = data instanceof List ? (List<?>) data : null;
+            for (int i = 0; i < expressions.size(); i++) {
+                boolean permitted = decisions != null && i < decisions.size() && Boolean.TRUE.equals(decisions.get(i));
+                futures.get(expressions.get(i)).complete(permitted);
+            }
+        } catch (Exception e) {
+            log.error("批量远程权限验证失败: {}", e.getMessage());
+            futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 同一token的待发送批次
+     */
+    private static final class PendingBatch {
+        private final String token;
+        private Map<String, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+
+        private PendingBatch(String token) {
+            this.token = token;
+        }
+
+        /**
+         * 加入批次，批次已关闭时返回null
+         */
+        private CompletableFuture<Boolean> add(String expression, RemoteAuthBatchCoalescer coalescer) {
+            CompletableFuture<Boolean> future;
+            boolean first;
+            boolean full;
+            synchronized (this) {
+                if (futures == null) {
+                    return null;
+                }
+                first = futures.isEmpty();
+                future = futures.computeIfAbsent(expression, key -> new CompletableFuture<>());
+                full = futures.size() >= coalescer.maxSize;
+            }
+            if (full) {
+                coalescer.executor.execute(() -> coalescer.flush(this));
+            } else if (first) {
+                coalescer.executor.schedule(() -> coalescer.flush(this), coalescer.windowNanos, TimeUnit.NANOSECONDS);
+            }
+            return future;
+        }
+
+        /**
+         * 关闭批次，返回待完成的结果，重复关闭返回null
+         */
+        private synchronized Map<String, CompletableFuture<Boolean>> close() {
+            Map<String, CompletableFuture<Boolean>> closed = futures;
+            futures = null;
+            return closed;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.ruoyi.feign.service;
+
+import com.ruoyi.feign.config.RemoteAuthProperties;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 远程鉴权结果本地缓存，按 (token, 权限表达式) 缓存鉴权结论
+ * 通过与拒绝结果分别设置有效期，条目数超过上限时先清理过期条目再淘汰部分存量条目
+ *
+ * @author Saltyfish
+ */
+public class RemoteAuthDecisionCache {
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    private final ConcurrentHashMap<String, Decision> decisions = new ConcurrentHashMap<>();
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder negativeHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public RemoteAuthDecisionCache(RemoteAuthProperties.Cache properties) {
+        this.maxSize = Math.max(properties.getMaxSize(), 0);
+        this.ttlNanos = properties.getTtl() == null ? 0 : properties.getTtl().toNanos();
+        this.negativeTtlNanos = properties.getNegativeTtl() == null ? 0 : properties.getNegativeTtl().toNanos();
+        this.enabled = properties.isEnabled() && maxSize > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * 获取缓存的鉴权结果
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return true/false为缓存的鉴权结论，null表示未命中
+     */
+    public Boolean get(String token, String expression) {
+        if (!enabled) {
+            return null;
+        }
+        String key = buildKey(token, expression);
+        Decision decision = decisions.get(key);
+        if (decision == null) {
+            missCount.increment();
+            return null;
+        }
+        if (decision.isExpired(System.nanoTime())) {
+            decisions.remove(key, decision);
+            missCount.increment();
+            return null;
+        }
+        if (decision.permitted) {
+            hitCount.increment();
+        } else {
+            negativeHitCount.increment();
+        }
+        return decision.permitted;
+    }
+
+    /**
+     * 缓存鉴权结果
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @param permitted 是否通过
+     */
+    public void put(String token, String expression, boolean permitted) {
+        if (!enabled) {
+            return;
+        }
+        long ttl = permitted ? ttlNanos : negativeTtlNanos;
+        if (ttl <= 0) {
+            return;
+        }
+        decisions.put(buildKey(token, expression), new Decision(permitted, System.nanoTime() + ttl));
+        if (decisions.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        decisions.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return decisions.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 淘汰条目，同一时刻只允许一个线程执行，其他线程直接返回
+     */
+    private void evict() {
+        if (!evictLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            decisions.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+            Iterator<Map.Entry<String, Decision>> iterator = decisions.entrySet().iterator();
+            while (decisions.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+        } finally {
+            evictLock.unlock();
+        }
+    }
+
+    private static String buildKey(String token, String expression) {
+        return token + KEY_SEPARATOR + expression;
+    }
+
+    /**
+     * 缓存的鉴权结论
+     */
+    private static final class Decision {
+        private final boolean permitted;
+        private final long expireAt;
+
+        private Decision(boolean permitted, long expireAt) {
+            this.permitted = permitted;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ruoyi.feign.service;
 
 import com.ruoyi.common.core.domain.AjaxResult;
 import com.ruoyi.feign.config.AuthFeignConstants;
+import com.ruoyi.feign.dto.AuthBatchValidateRequest;
 import com.ruoyi.feign.dto.AuthValidateRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,4 +21,10 @@ public interface RemoteAuthFeignService {
      */
     @PostMapping("/remote/auth/validate")
     AjaxResult validatePermission(@RequestBody AuthValidateRequest request);
+    
+    /**
+     * 批量远程权限验证，data为与expressions顺序一致的布尔列表
+     */
+    @PostMapping("/remote/auth/validate/batch")
+    AjaxResult validatePermissionBatch(@RequestBody AuthBatchValidateRequest request);
 }
\ No newline at end of file
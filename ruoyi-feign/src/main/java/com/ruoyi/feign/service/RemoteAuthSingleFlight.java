@@ -0,0 +1,81 @@
+package com.ruoyi.feign.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 远程鉴权单飞去重，相同 (token, 权限表达式) 的并发校验共享同一次远程调用及其结果
+ *
+ * @author Saltyfish
+ */
+public class RemoteAuthSingleFlight {
+
+    private static final char KEY_SEPARATOR = '\n';
+
+    /** 进行中的远程校验 */
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder collapsedCount = new LongAdder();
+
+    /**
+     * 执行校验，已有相同校验进行中时等待其结果而不重复调用
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @param loader 实际的远程校验
+     * @return 鉴权结论
+     */
+    public boolean execute(String token, String expression, Callable<Boolean> loader) throws Exception {
+        String key = token + KEY_SEPARATOR + expression;
+        CompletableFuture<Boolean> leader = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            collapsedCount.increment();
+            return await(existing);
+        }
+        executedCount.increment();
+        try {
+            boolean permitted = loader.call();
+            leader.complete(permitted);
+            return permitted;
+        } catch (Throwable e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * 实际发起远程调用的次数
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * 被合并到进行中调用的次数
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.sum();
+    }
+
+    /**
+     * 当前进行中的远程调用数
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static boolean await(CompletableFuture<Boolean> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ruoyi.feign.service;
+
+import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.feign.dto.AuthValidateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 远程鉴权校验器，封装鉴权结果缓存、本地鉴权、单飞去重、请求合并与Feign远程调用
+ *
+ * @author Saltyfish
+ */
+public class RemoteAuthValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteAuthValidator.class);
+
+    private final RemoteAuthFeignService remoteAuthFeignService;
+    private final RemoteAuthDecisionCache decisionCache;
+    private final RemoteAuthSingleFlight singleFlight = new RemoteAuthSingleFlight();
+    /** 请求合并器，为null表示不合并 */
+    private final RemoteAuthBatchCoalescer batchCoalescer;
+    private final long batchTimeoutMillis;
+    /** 本地鉴权校验器，为null表示不开启本地鉴权 */
+    private final LocalAuthValidator localAuthValidator;
+
+    public RemoteAuthValidator(RemoteAuthFeignService remoteAuthFeignService, RemoteAuthDecisionCache decisionCache) {
+        this(remoteAuthFeignService, decisionCache, null, null, null);
+    }
+
+    public RemoteAuthValidator(RemoteAuthFeignService remoteAuthFeignService, RemoteAuthDecisionCache decisionCache,
+        RemoteAuthBatchCoalescer batchCoalescer, Duration batchTimeout, LocalAuthValidator localAuthValidator) {
+        this.remoteAuthFeignService = remoteAuthFeignService;
+        this.decisionCache = decisionCache;
+        this.batchCoalescer = batchCoalescer;
+        this.batchTimeoutMillis = batchTimeout == null ? 0 : batchTimeout.toMillis();
+        this.localAuthValidator = localAuthValidator;
+    }
+
+    /**
+     * 校验token是否满足权限表达式，优先使用本地缓存的鉴权结论，开启本地鉴权时不再回调鉴权服务
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return true表示鉴权通过
+     */
+    public boolean validate(String token, String expression) {
+        Boolean cached = getCachedDecision(token, expression);
+        if (cached != null) {
+            return cached;
+        }
+        if (localAuthValidator != null) {
+            try {
+                boolean permitted = localAuthValidator.validate(token, expression);
+                decisionCache.put(token, expression, permitted);
+                return permitted;
+            } catch (Exception e) {
+                if (!localAuthValidator.isFallbackToRemote()) {
+                    log.error("本地权限验证失败: {}", e.getMessage());
+                    return false;
+                }
+                log.warn("本地权限验证不可用，回退为远程鉴权: {}", e.getMessage());
+            }
+        }
+        return validateRemote(token, expression);
+    }
+
+    /**
+     * 查询本地缓存的鉴权结论
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return 缓存的鉴权结论，null表示未命中
+     */
+    public Boolean getCachedDecision(String token, String expression) {
+        return decisionCache.get(token, expression);
+    }
+
+    /**
+     * 跳过缓存查询，直接发起远程校验并回填缓存，相同校验进行中时复用其结果
+     *
+     * @param token 令牌
+     * @param expression 权限表达式
+     * @return true表示鉴权通过
+     */
+    public boolean validateRemote(String token, String expression) {
+        try {
+            return singleFlight.execute(token, expression, () -> {
+                boolean permitted = batchCoalescer != null ? validateBatched(token, expression) : validateSingle(token, expression);
+                decisionCache.put(token, expression, permitted);
+                return permitted;
+            });
+        } catch (Exception e) {
+            // 调用异常不缓存，避免短暂故障被放大
+            log.error("远程权限验证失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 单条远程校验
+     */
+    private boolean validateSingle(String token, String expression) {
+        AuthValidateRequest request = new AuthValidateRequest();
+        request.setToken(token);
+        request.setExpression(expression);
+
+        AjaxResult result = remoteAuthFeignService.validatePermission(request);
+        return result.isSuccess();
+    }
+
+    /**
+     * 经请求合并器批量校验
+     */
+    private boolean validateBatched(String token, String expression) throws Exception {
+        try {
+            return batchCoalescer.submit(token, expression).get(batchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    public RemoteAuthDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    public RemoteAuthSingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ruoyi.feign.util;
 
+import com.ruoyi.feign.filter.RemoteAuthPolicy;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.server.PathContainer;
@@ -11,11 +12,12 @@ import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.aop.support.AopUtils;
 
 /**
  * 修复后的WebFlux路由解析工具类（解决PathPattern类型匹配错误）
+ * 启动时按HTTP方法构建路由索引：无变量的路径走精确匹配，其余为预解析的PathPattern并按特异性排序，
+ * 每个路由同时保存解析好的鉴权策略，运行期不再插入具体路径，内存占用与请求路径数量无关
  *
  * @author Saltyfish
  */
@@ -23,8 +25,8 @@ public class WebFluxRouteUtil {
 
     // 静态ApplicationContext（确保线程安全）
     private static volatile ApplicationContext applicationContext;
-    // 缓存路径匹配器和Controller方法映射（避免重复遍历，提升性能）
-    private static final Map<String, Method> METHOD_CACHE = new ConcurrentHashMap<>();
+    // 按HTTP方法划分的路由索引，启动时构建后不再修改
+    private static volatile Map<String, RouteIndex> routeIndex = Collections.emptyMap();
     // Spring官方路径解析器（支持标准的路径参数、通配符）
     private static final PathPatternParser PATH_PATTERN_PARSER = new PathPatternParser();
 
@@ -43,7 +45,7 @@ public class WebFluxRouteUtil {
             synchronized (WebFluxRouteUtil.class) {
                 if (applicationContext == null) {
                     applicationContext = context;
-                    // 初始化时预加载所有Controller方法到缓存
+                    // 初始化时构建路由索引
                     preloadControllerMethods();
                 }
             }
@@ -54,39 +56,71 @@ public class WebFluxRouteUtil {
      * 从ServerWebExchange中获取HandlerMethod（修复核心）
      */
     public static Method getHandlerMethod(ServerWebExchange exchange) {
+        RouteEntry entry = findRoute(exchange);
+        return entry != null ? entry.method : null;
+    }
+
+    /**
+     * 从ServerWebExchange中获取接口鉴权策略
+     *
+     * @return 鉴权策略，为null表示请求未映射到Controller方法
+     */
+    public static RemoteAuthPolicy getAuthPolicy(ServerWebExchange exchange) {
+        RouteEntry entry = findRoute(exchange);
+        return entry != null ? entry.policy : null;
+    }
+
+    /**
+     * 根据路径和HTTP方法查找Controller方法（兼容路径参数、通配符）
+     */
+    public static Method findControllerMethod(String requestPath, String httpMethod) {
+        RouteEntry entry = findRoute(normalizePath(requestPath), httpMethod);
+        return entry != null ? entry.method : null;
+    }
+
+    /**
+     * 匹配请求对应的路由
+     */
+    private static RouteEntry findRoute(ServerWebExchange exchange) {
         try {
             if (applicationContext == null) {
                 System.err.println("ApplicationContext未初始化，无法获取HandlerMethod");
                 return null;
             }
-
-            // 1. 标准化请求路径和HTTP方法
-            String requestPath = normalizePath(exchange.getRequest().getPath().value());
-            String httpMethod = exchange.getRequest().getMethod().name();
-            String cacheKey = httpMethod + ":" + requestPath;
-
-            // 2. 优先从缓存获取，缓存未命中则实时匹配
-            Method handlerMethod = METHOD_CACHE.get(cacheKey);
-            if (handlerMethod != null) {
-                return handlerMethod;
-            }
-
-            // 3. 实时匹配（缓存未命中时）
-            handlerMethod = findControllerMethod(requestPath, httpMethod);
-            if (handlerMethod != null) {
-                METHOD_CACHE.put(cacheKey, handlerMethod); // 加入缓存
-            }
-            return handlerMethod;
-
+            String requestPath = normalizePath(exchange.getRequest().getPath().pathWithinApplication().value());
+            return findRoute(requestPath, exchange.getRequest().getMethod().name());
         } catch (Exception e) {
             System.err.println("获取HandlerMethod失败: " + e.getMessage());
-            e.printStackTrace();
             return null;
         }
     }
 
     /**
-     * 预加载所有Controller方法到缓存（启动时执行，避免每次请求遍历）
+     * 先精确匹配，再按特异性顺序匹配路径模式
+     */
+    private static RouteEntry findRoute(String requestPath, String httpMethod) {
+        RouteIndex index = routeIndex.get(httpMethod);
+        if (index == null) {
+            return null;
+        }
+        RouteEntry entry = index.exactRoutes.get(requestPath);
+        if (entry != null) {
+            return entry;
+        }
+        if (index.patternRoutes.length == 0) {
+            return null;
+        }
+        PathContainer requestPathContainer = PathContainer.parsePath(requestPath);
+        for (RouteEntry patternRoute : index.patternRoutes) {
+            if (patternRoute.pattern.matches(requestPathContainer)) {
+                return patternRoute;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 构建路由索引（启动时执行，避免每次请求遍历及重复解析）
      */
     private static void preloadControllerMethods() {
         try {
@@ -95,6 +129,8 @@ public class WebFluxRouteUtil {
             Map<String, Object> restControllers = applicationContext.getBeansWithAnnotation(RestController.class);
             controllers.putAll(restControllers);
 
+            Map<String, Map<String, RouteEntry>> exactRoutes = new HashMap<>();
+            Map<String, List<RouteEntry>> patternRoutes = new HashMap<>();
             for (Object controller : controllers.values()) {
                 // 修复：获取原始类（避免CGLIB代理类）
                 Class<?> controllerClass = AopUtils.getTargetClass(controller);
@@ -105,51 +141,39 @@ public class WebFluxRouteUtil {
                 for (Method method : controllerClass.getDeclaredMethods()) {
                     // 获取方法的映射信息（路径+HTTP方法）
                     List<MappingInfo> mappingInfos = getMethodMappingInfos(method, classBasePath);
+                    if (mappingInfos.isEmpty()) {
+                        continue;
+                    }
+                    RemoteAuthPolicy policy = RemoteAuthPolicy.resolve(method, controllerClass);
                     for (MappingInfo info : mappingInfos) {
-                        String cacheKey = info.httpMethod + ":" + info.path;
-                        METHOD_CACHE.put(cacheKey, method);
-                        // 额外缓存路径模式（用于路径参数场景）
-                        METHOD_CACHE.put("PATTERN:" + info.path + ":" + info.httpMethod, method);
+                        PathPattern pattern = PATH_PATTERN_PARSER.parse(info.path);
+                        RouteEntry entry = new RouteEntry(pattern, method, policy);
+                        if (pattern.hasPatternSyntax()) {
+                            patternRoutes.computeIfAbsent(info.httpMethod, key -> new ArrayList<>()).add(entry);
+                        } else {
+                            exactRoutes.computeIfAbsent(info.httpMethod, key -> new HashMap<>()).putIfAbsent(info.path, entry);
+                        }
                     }
                 }
             }
+
+            Set<String> httpMethods = new HashSet<>(exactRoutes.keySet());
+            httpMethods.addAll(patternRoutes.keySet());
+            Map<String, RouteIndex> indexes = new HashMap<>();
+            for (String httpMethod : httpMethods) {
+                List<RouteEntry> patterns = patternRoutes.getOrDefault(httpMethod, Collections.emptyList());
+                patterns.sort((a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern, b.pattern));
+                indexes.put(httpMethod, new RouteIndex(
+                    Map.copyOf(exactRoutes.getOrDefault(httpMethod, Collections.emptyMap())),
+                    patterns.toArray(new RouteEntry[0])));
+            }
+            routeIndex = Map.copyOf(indexes);
         } catch (Exception e) {
             System.err.println("预加载Controller方法失败: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    /**
-     * 根据路径和HTTP方法查找Controller方法（兼容路径参数、通配符，修复类型匹配错误）
-     */
-    public static Method findControllerMethod(String requestPath, String httpMethod) {
-        // 1. 先尝试精确匹配
-        String exactKey = httpMethod + ":" + requestPath;
-        if (METHOD_CACHE.containsKey(exactKey)) {
-            return METHOD_CACHE.get(exactKey);
-        }
-
-        // 2. 处理路径参数/通配符匹配（如/user/{id}）
-        // 转换请求路径为PathContainer（关键修复：匹配方法需要的正确类型）
-        PathContainer requestPathContainer = PathContainer.parsePath(requestPath);
-
-        for (Map.Entry<String, Method> entry : METHOD_CACHE.entrySet()) {
-            String cacheKey = entry.getKey();
-            if (cacheKey.startsWith("PATTERN:") && cacheKey.endsWith(":" + httpMethod)) {
-                // 提取路径模式字符串（去掉PATTERN:前缀和HTTP方法后缀）
-                String patternStr = cacheKey.replace("PATTERN:", "").replace(":" + httpMethod, "");
-                // 解析路径模式为PathPattern
-                PathPattern pattern = PATH_PATTERN_PARSER.parse(patternStr);
-                // 关键修复：传入PathContainer类型的参数到matches方法
-                if (pattern.matches(requestPathContainer)) {
-                    return entry.getValue();
-                }
-            }
-        }
-
-        return null;
-    }
-
     /**
      * 获取类级别的RequestMapping路径
      */
@@ -248,13 +272,43 @@ public class WebFluxRouteUtil {
             return "/";
         }
         // 替换多个斜杠为单个，去除末尾斜杠（保留根路径/）
-        path = path.replaceAll("/+", "/");
+        if (path.contains("//")) {
+            path = path.replaceAll("/+", "/");
+        }
         if (path.length() > 1 && path.endsWith("/")) {
             path = path.substring(0, path.length() - 1);
         }
         return path;
     }
 
+    /**
+     * 单个HTTP方法下的路由索引
+     */
+    private static class RouteIndex {
+        final Map<String, RouteEntry> exactRoutes;   // 无路径变量的路由
+        final RouteEntry[] patternRoutes;           // 按特异性排序的路径模式路由
+
+        RouteIndex(Map<String, RouteEntry> exactRoutes, RouteEntry[] patternRoutes) {
+            this.exactRoutes = exactRoutes;
+            this.patternRoutes = patternRoutes;
+        }
+    }
+
+    /**
+     * 路由条目：预解析的路径模式、Controller方法及其鉴权策略
+     */
+    private static class RouteEntry {
+        final PathPattern pattern;
+        final Method method;
+        final RemoteAuthPolicy policy;
+
+        RouteEntry(PathPattern pattern, Method method, RemoteAuthPolicy policy) {
+            this.pattern = pattern;
+            this.method = method;
+            this.policy = policy;
+        }
+    }
+
     /**
      * 内部映射信息封装类（简化，移除无用的rawPattern字段）
      */
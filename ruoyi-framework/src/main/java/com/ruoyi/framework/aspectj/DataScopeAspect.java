@@ -135,7 +135,7 @@ public class DataScopeAspect
             }
             else if (DATA_SCOPE_DEPT_AND_CHILD.equals(dataScope))
             {
-                sqlString.append(StringUtils.format(" OR {}.dept_id IN ( SELECT dept_id FROM sys_dept WHERE dept_id = {} or find_in_set( {} , ancestors ) )", deptAlias, user.getDeptId(), user.getDeptId()));
+                sqlString.append(StringUtils.format(" OR {}.dept_id IN ( SELECT descendant_id FROM sys_dept_closure WHERE ancestor_id = {} )", deptAlias, user.getDeptId()));
             }
             else if (DATA_SCOPE_SELF.equals(dataScope))
             {
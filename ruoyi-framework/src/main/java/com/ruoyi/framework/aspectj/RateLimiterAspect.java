@@ -1,8 +1,8 @@
 package com.ruoyi.framework.aspectj;
 
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jakarta.servlet.http.HttpServletResponse;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -10,14 +10,16 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import com.ruoyi.common.annotation.RateLimiter;
 import com.ruoyi.common.enums.LimitType;
 import com.ruoyi.common.exception.ServiceException;
-import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.framework.limiter.LeasedRateLimiter;
+import com.ruoyi.framework.limiter.LocalRateLimiter;
+import com.ruoyi.framework.limiter.RedisRateLimiter;
 
 /**
  * 限流处理
@@ -30,46 +32,49 @@ public class RateLimiterAspect
 {
     private static final Logger log = LoggerFactory.getLogger(RateLimiterAspect.class);
 
-    private RedisTemplate<Object, Object> redisTemplate;
-
-    private RedisScript<Long> limitScript;
+    @Autowired
+    private RedisRateLimiter redisRateLimiter;
 
     @Autowired
-    public void setRedisTemplate1(RedisTemplate<Object, Object> redisTemplate)
-    {
-        this.redisTemplate = redisTemplate;
-    }
+    private LocalRateLimiter localRateLimiter;
 
     @Autowired
-    public void setLimitScript(RedisScript<Long> limitScript)
-    {
-        this.limitScript = limitScript;
-    }
+    private LeasedRateLimiter leasedRateLimiter;
 
     @Before("@annotation(rateLimiter)")
     public void doBefore(JoinPoint point, RateLimiter rateLimiter) throws Throwable
     {
-        int time = rateLimiter.time();
-        int count = rateLimiter.count();
-
+        long windowMillis = TimeUnit.SECONDS.toMillis(rateLimiter.time());
         String combineKey = getCombineKey(rateLimiter, point);
-        List<Object> keys = Collections.singletonList(combineKey);
-        try
+
+        long waitMillis = 0;
+        if (rateLimiter.localCount() > 0)
         {
-            Long number = redisTemplate.execute(limitScript, keys, count, time);
-            if (StringUtils.isNull(number) || number.intValue() > count)
-            {
-                throw new ServiceException("访问过于频繁，请稍候再试");
-            }
-            log.info("限制请求'{}',当前请求'{}',缓存key'{}'", count, number.intValue(), combineKey);
+            waitMillis = localRateLimiter.tryAcquire(combineKey, rateLimiter.localCount(), windowMillis);
         }
-        catch (ServiceException e)
+        if (waitMillis == 0)
         {
-            throw e;
+            try
+            {
+                if (rateLimiter.leaseSize() > 0)
+                {
+                    waitMillis = leasedRateLimiter.tryAcquire(combineKey, rateLimiter.count(), windowMillis, rateLimiter.leaseSize());
+                }
+                else
+                {
+                    waitMillis = redisRateLimiter.tryAcquire(combineKey, rateLimiter.algorithm(), rateLimiter.count(), windowMillis);
+                }
+            }
+            catch (Exception e)
+            {
+                log.error("限流异常，缓存key'{}'", combineKey, e);
+                throw new RuntimeException("服务器限流异常，请稍候再试");
+            }
         }
-        catch (Exception e)
+        if (waitMillis > 0)
         {
-            throw new RuntimeException("服务器限流异常，请稍候再试");
+            setRetryAfter(waitMillis);
+            throw new ServiceException("访问过于频繁，请稍候再试");
         }
     }
 
@@ -86,4 +91,16 @@ public class RateLimiterAspect
         stringBuffer.append(targetClass.getName()).append("-").append(method.getName());
         return stringBuffer.toString();
     }
+
+    /**
+     * 在响应头中告知客户端需等待的秒数
+     */
+    private void setRetryAfter(long waitMillis)
+    {
+        HttpServletResponse response = ServletUtils.getResponse();
+        if (response != null)
+        {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        }
+    }
 }
@@ -8,6 +8,7 @@ import com.alibaba.fastjson2.JSONReader;
 import com.alibaba.fastjson2.JSONWriter;
 import com.alibaba.fastjson2.filter.Filter;
 import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.core.redis.FastJson2BinaryRedisSerializer;
 
 /**
  * Redis使用FastJson序列化
@@ -45,8 +46,11 @@ public class FastJson2JsonRedisSerializer<T> implements RedisSerializer<T>
         {
             return null;
         }
-        String str = new String(bytes, DEFAULT_CHARSET);
-
-        return JSON.parseObject(str, clazz, AUTO_TYPE_FILTER);
+        // 兼容切换序列化方式前后写入的二进制数据
+        if (FastJson2BinaryRedisSerializer.isBinary(bytes))
+        {
+            return FastJson2BinaryRedisSerializer.decode(bytes, clazz);
+        }
+        return JSON.parseObject(bytes, clazz, AUTO_TYPE_FILTER);
     }
 }
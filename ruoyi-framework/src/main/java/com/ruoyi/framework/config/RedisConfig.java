@@ -1,13 +1,16 @@
 package com.ruoyi.framework.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import com.ruoyi.common.core.redis.FastJson2BinaryRedisSerializer;
 
 /**
  * redis配置
@@ -19,6 +22,14 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @EnableCaching
 public class RedisConfig extends CachingConfigurerSupport
 {
+    /** 值序列化方式 json 文本 binary 二进制 */
+    @Value("${ruoyi.redis.serializer:json}")
+    private String serializerType;
+
+    /** 二进制序列化时超过该字节数进行压缩，小于等于0不压缩 */
+    @Value("${ruoyi.redis.compressThreshold:1024}")
+    private int compressThreshold;
+
     @Bean
     @SuppressWarnings(value = { "unchecked", "rawtypes" })
     public RedisTemplate<Object, Object> redisTemplate(RedisConnectionFactory connectionFactory)
@@ -26,7 +37,7 @@ public class RedisConfig extends CachingConfigurerSupport
         RedisTemplate<Object, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        FastJson2JsonRedisSerializer serializer = new FastJson2JsonRedisSerializer(Object.class);
+        RedisSerializer serializer = createValueSerializer();
 
         // 使用StringRedisSerializer来序列化和反序列化redis的key值
         template.setKeySerializer(new StringRedisSerializer());
@@ -40,31 +51,27 @@ public class RedisConfig extends CachingConfigurerSupport
         return template;
     }
 
-    @Bean
-    public DefaultRedisScript<Long> limitScript()
+    /**
+     * 创建值序列化器，两种方式读取时均兼容对方写入的数据，可平滑切换
+     */
+    @SuppressWarnings(value = { "rawtypes" })
+    private RedisSerializer createValueSerializer()
     {
-        DefaultRedisScript<Long> redisScript = new DefaultRedisScript<>();
-        redisScript.setScriptText(limitScriptText());
-        redisScript.setResultType(Long.class);
-        return redisScript;
+        if ("binary".equalsIgnoreCase(serializerType))
+        {
+            return new FastJson2BinaryRedisSerializer<>(Object.class, compressThreshold);
+        }
+        return new FastJson2JsonRedisSerializer<>(Object.class);
     }
 
     /**
-     * 限流脚本
+     * redis消息监听容器，用于节点间的缓存失效通知
      */
-    private String limitScriptText()
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory)
     {
-        return "local key = KEYS[1]\n" +
-                "local count = tonumber(ARGV[1])\n" +
-                "local time = tonumber(ARGV[2])\n" +
-                "local current = redis.call('get', key);\n" +
-                "if current and tonumber(current) > count then\n" +
-                "    return tonumber(current);\n" +
-                "end\n" +
-                "current = redis.call('incr', key)\n" +
-                "if tonumber(current) == 1 then\n" +
-                "    redis.call('expire', key, time)\n" +
-                "end\n" +
-                "return tonumber(current);";
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 }
@@ -1,7 +1,9 @@
 package com.ruoyi.framework.interceptor.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.concurrent.TimeUnit;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,21 +15,22 @@ import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.filter.RepeatedlyRequestWrapper;
 import com.ruoyi.common.utils.StringUtils;
-import com.ruoyi.common.utils.http.HttpHelper;
 import com.ruoyi.framework.interceptor.RepeatSubmitInterceptor;
 
 /**
  * 判断请求url和数据是否和上一次相同，
  * 如果和上次相同，则是重复提交表单。 有效时间为10秒内。
  * 
+ * 以 请求地址 + 令牌 + 请求数据 的SHA-256摘要作为缓存key，通过一次 SET NX PX 完成判断与登记，
+ * 请求数据本身不写入Redis
+ * 
  * @author ruoyi
  */
 @Component
 public class SameUrlDataInterceptor extends RepeatSubmitInterceptor
 {
-    public final String REPEAT_PARAMS = "repeatParams";
-
-    public final String REPEAT_TIME = "repeatTime";
+    /** 摘要各部分之间的分隔符，避免不同的拼接方式得到相同摘要 */
+    private static final byte SEPARATOR = 0;
 
     // 令牌自定义标识
     @Value("${token.header}")
@@ -36,75 +39,51 @@ public class SameUrlDataInterceptor extends RepeatSubmitInterceptor
     @Autowired
     private RedisCache redisCache;
 
-    @SuppressWarnings("unchecked")
     @Override
     public boolean isRepeatSubmit(HttpServletRequest request, RepeatSubmit annotation)
     {
-        String nowParams = "";
+        byte[] body = null;
         if (request instanceof RepeatedlyRequestWrapper)
         {
-            RepeatedlyRequestWrapper repeatedlyRequest = (RepeatedlyRequestWrapper) request;
-            nowParams = HttpHelper.getBodyString(repeatedlyRequest);
+            body = ((RepeatedlyRequestWrapper) request).getBody();
         }
 
         // body参数为空，获取Parameter的数据
-        if (StringUtils.isEmpty(nowParams))
+        if (body == null || body.length == 0)
         {
-            nowParams = JSON.toJSONString(request.getParameterMap());
+            body = JSON.toJSONBytes(request.getParameterMap());
         }
-        Map<String, Object> nowDataMap = new HashMap<String, Object>();
-        nowDataMap.put(REPEAT_PARAMS, nowParams);
-        nowDataMap.put(REPEAT_TIME, System.currentTimeMillis());
 
-        // 请求地址（作为存放cache的key值）
+        // 请求地址
         String url = request.getRequestURI();
 
         // 唯一值（没有消息头则使用请求地址）
         String submitKey = StringUtils.trimToEmpty(request.getHeader(header));
 
-        // 唯一标识（指定key + url + 消息头）
-        String cacheRepeatKey = CacheConstants.REPEAT_SUBMIT_KEY + url + submitKey;
+        // 唯一标识（指定key + 摘要(url + 消息头 + 请求数据)）
+        String cacheRepeatKey = CacheConstants.REPEAT_SUBMIT_KEY + digest(url, submitKey, body);
 
-        Object sessionObj = redisCache.getCacheObject(cacheRepeatKey);
-        if (sessionObj != null)
-        {
-            Map<String, Object> sessionMap = (Map<String, Object>) sessionObj;
-            if (sessionMap.containsKey(url))
-            {
-                Map<String, Object> preDataMap = (Map<String, Object>) sessionMap.get(url);
-                if (compareParams(nowDataMap, preDataMap) && compareTime(nowDataMap, preDataMap, annotation.interval()))
-                {
-                    return true;
-                }
-            }
-        }
-        Map<String, Object> cacheMap = new HashMap<String, Object>();
-        cacheMap.put(url, nowDataMap);
-        redisCache.setCacheObject(cacheRepeatKey, cacheMap, annotation.interval(), TimeUnit.MILLISECONDS);
-        return false;
+        return !redisCache.setCacheObjectIfAbsent(cacheRepeatKey, 1, annotation.interval(), TimeUnit.MILLISECONDS);
     }
 
     /**
-     * 判断参数是否相同
+     * 计算请求摘要
      */
-    private boolean compareParams(Map<String, Object> nowMap, Map<String, Object> preMap)
+    private static String digest(String url, String submitKey, byte[] body)
     {
-        String nowParams = (String) nowMap.get(REPEAT_PARAMS);
-        String preParams = (String) preMap.get(REPEAT_PARAMS);
-        return nowParams.equals(preParams);
-    }
-
-    /**
-     * 判断两次间隔时间
-     */
-    private boolean compareTime(Map<String, Object> nowMap, Map<String, Object> preMap, int interval)
-    {
-        long time1 = (Long) nowMap.get(REPEAT_TIME);
-        long time2 = (Long) preMap.get(REPEAT_TIME);
-        if ((time1 - time2) < interval)
+        try
+        {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(url.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(SEPARATOR);
+            messageDigest.update(submitKey.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(SEPARATOR);
+            messageDigest.update(body);
+            return HexFormat.of().formatHex(messageDigest.digest());
+        }
+        catch (NoSuchAlgorithmException e)
         {
-            return true;
+            throw new IllegalStateException(e);
         }
-        return false;
     }
 }
@@ -0,0 +1,216 @@
+package com.ruoyi.framework.limiter;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.enums.LimitAlgorithm;
+import com.ruoyi.framework.manager.AsyncManager;
+
+/**
+ * 混合模式限流
+ * 各节点从Redis令牌桶中按批租借令牌，本机以CAS扣减，仅在租借时访问Redis；剩余令牌低于一半时异步续租，
+ * 耗尽时同步租借一次。租借的令牌在一个窗口后作废，全局超发量与 节点数 × 每次租借数 同阶
+ *
+ * @author ruoyi
+ */
+@Component
+public class LeasedRateLimiter
+{
+    private static final Logger log = LoggerFactory.getLogger(LeasedRateLimiter.class);
+
+    /** 最多保留的限流键数量 */
+    private static final int MAX_SIZE = 10000;
+
+    @Autowired
+    private RedisRateLimiter redisRateLimiter;
+
+    private final Map<String, LocalLease> leases = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    /**
+     * 尝试获取一次访问许可
+     *
+     * @param key 限流键
+     * @param count 窗口内允许的次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @param leaseSize 每次租借的令牌数
+     * @return 需等待的毫秒数，0表示放行
+     */
+    public long tryAcquire(String key, int count, long windowMillis, int leaseSize)
+    {
+        long now = System.currentTimeMillis();
+        LocalLease lease = leases.get(key);
+        if (lease == null)
+        {
+            lease = leases.computeIfAbsent(key, k -> new LocalLease());
+            if (leases.size() > MAX_SIZE)
+            {
+                evict(now);
+            }
+        }
+        long remaining = lease.take(now);
+        if (remaining >= 0)
+        {
+            if (remaining <= leaseSize / 2)
+            {
+                refillAsync(key, lease, count, windowMillis, leaseSize);
+            }
+            return 0;
+        }
+        if (now < lease.deniedUntil)
+        {
+            return lease.deniedUntil - now;
+        }
+        if (!lease.refilling.compareAndSet(false, true))
+        {
+            // 其他线程正在续租，本次请求直接向Redis申请单枚令牌
+            return redisRateLimiter.tryAcquire(key, LimitAlgorithm.TOKEN_BUCKET, count, windowMillis);
+        }
+        try
+        {
+            RedisRateLimiter.Lease granted = redisRateLimiter.lease(key, count, windowMillis, leaseSize);
+            if (granted.getGranted() <= 0)
+            {
+                lease.deny(now + Math.max(granted.getWaitMillis(), 1));
+                return Math.max(granted.getWaitMillis(), 1);
+            }
+            // 当前请求占用一枚，其余留给本机后续请求
+            lease.grant(granted.getGranted() - 1, now + windowMillis);
+            return 0;
+        }
+        finally
+        {
+            lease.refilling.set(false);
+        }
+    }
+
+    /**
+     * 异步续租，同一限流键同时只有一个续租任务
+     */
+    private void refillAsync(String key, LocalLease lease, int count, long windowMillis, int leaseSize)
+    {
+        if (!lease.refilling.compareAndSet(false, true))
+        {
+            return;
+        }
+        AsyncManager.me().execute(new TimerTask()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    long now = System.currentTimeMillis();
+                    RedisRateLimiter.Lease granted = redisRateLimiter.lease(key, count, windowMillis, leaseSize);
+                    if (granted.getGranted() > 0)
+                    {
+                        lease.grant(granted.getGranted(), now + windowMillis);
+                    }
+                }
+                catch (Exception e)
+                {
+                    log.error("限流令牌续租异常，缓存key'{}'", key, e);
+                }
+                finally
+                {
+                    lease.refilling.set(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * 先清理租约已过期的条目，仍超出上限时再淘汰部分存量条目
+     */
+    private void evict(long now)
+    {
+        if (!evictLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            leases.values().removeIf(lease -> lease.expireAt <= now && !lease.refilling.get());
+            Iterator<String> iterator = leases.keySet().iterator();
+            while (leases.size() > MAX_SIZE && iterator.hasNext())
+            {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        finally
+        {
+            evictLock.unlock();
+        }
+    }
+
+    private static final class LocalLease
+    {
+        /** 本机剩余令牌数 */
+        private final AtomicLong permits = new AtomicLong();
+
+        /** 是否正在续租 */
+        private final AtomicBoolean refilling = new AtomicBoolean();
+
+        /** 令牌作废时间 */
+        private volatile long expireAt;
+
+        /** Redis中令牌不足时，在此时间前直接拒绝 */
+        private volatile long deniedUntil;
+
+        /**
+         * 扣减一枚令牌
+         *
+         * @return 扣减后的剩余数量，无可用令牌返回-1
+         */
+        private long take(long now)
+        {
+            if (now >= expireAt)
+            {
+                return -1;
+            }
+            long current;
+            do
+            {
+                current = permits.get();
+                if (current <= 0)
+                {
+                    return -1;
+                }
+            }
+            while (!permits.compareAndSet(current, current - 1));
+            return current - 1;
+        }
+
+        /**
+         * 追加租借到的令牌，原有令牌已作废时重新计数
+         */
+        private void grant(long granted, long expireAt)
+        {
+            if (System.currentTimeMillis() >= this.expireAt)
+            {
+                permits.set(granted);
+            }
+            else
+            {
+                permits.addAndGet(granted);
+            }
+            this.expireAt = expireAt;
+            this.deniedUntil = 0;
+        }
+
+        private void deny(long deniedUntil)
+        {
+            this.deniedUntil = deniedUntil;
+        }
+    }
+}
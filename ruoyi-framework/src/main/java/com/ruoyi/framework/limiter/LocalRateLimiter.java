@@ -0,0 +1,98 @@
+package com.ruoyi.framework.limiter;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * 单节点预限流
+ * 在本机内存中按令牌桶拦截明显超限的请求，被拦截的请求不再访问Redis；放行的请求仍需通过分布式限流
+ *
+ * @author ruoyi
+ */
+@Component
+public class LocalRateLimiter
+{
+    /** 最多保留的限流键数量 */
+    private static final int MAX_SIZE = 10000;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    /**
+     * 尝试获取一次访问许可
+     *
+     * @param key 限流键
+     * @param capacity 窗口内允许的次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @return 需等待的毫秒数，0表示放行
+     */
+    public long tryAcquire(String key, int capacity, long windowMillis)
+    {
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null)
+        {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+            if (buckets.size() > MAX_SIZE)
+            {
+                evict(now, windowMillis);
+            }
+        }
+        return bucket.tryAcquire(capacity, windowMillis, now);
+    }
+
+    /**
+     * 先清理已补满（即一个窗口内未被访问）的令牌桶，仍超出上限时再淘汰部分存量条目
+     */
+    private void evict(long now, long windowMillis)
+    {
+        if (!evictLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            buckets.values().removeIf(bucket -> now - bucket.timestamp >= windowMillis);
+            Iterator<String> iterator = buckets.keySet().iterator();
+            while (buckets.size() > MAX_SIZE && iterator.hasNext())
+            {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        finally
+        {
+            evictLock.unlock();
+        }
+    }
+
+    private static final class Bucket
+    {
+        private double tokens;
+
+        private volatile long timestamp;
+
+        private Bucket(int capacity, long now)
+        {
+            this.tokens = capacity;
+            this.timestamp = now;
+        }
+
+        private synchronized long tryAcquire(int capacity, long windowMillis, long now)
+        {
+            double rate = (double) capacity / windowMillis;
+            tokens = Math.min(capacity, tokens + Math.max(now - timestamp, 0) * rate);
+            timestamp = now;
+            if (tokens >= 1)
+            {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max((long) Math.ceil((1 - tokens) / rate), 1);
+        }
+    }
+}
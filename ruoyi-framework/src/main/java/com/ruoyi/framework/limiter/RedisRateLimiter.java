@@ -0,0 +1,211 @@
+package com.ruoyi.framework.limiter;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.enums.LimitAlgorithm;
+
+/**
+ * 基于Redis的分布式限流
+ * 每种算法对应一个Lua脚本，判断与计数在一次往返中原子完成；脚本按SHA1以 EVALSHA 执行，仅在Redis中不存在时回退为 EVAL。
+ * 脚本统一返回 {是否放行, 需等待毫秒数}，时间取自Redis服务器，不受各节点时钟偏差影响
+ *
+ * @author ruoyi
+ */
+@Component
+public class RedisRateLimiter
+{
+    /** 脚本公共部分：键名、限流次数、窗口毫秒数、当前毫秒时间 */
+    private static final String SCRIPT_HEADER = "if redis.replicate_commands then redis.replicate_commands() end\n" +
+            "local key = KEYS[1]\n" +
+            "local limit = tonumber(ARGV[1])\n" +
+            "local window = tonumber(ARGV[2])\n" +
+            "local time = redis.call('time')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n";
+
+    /**
+     * 固定窗口：超限时不再累加计数，等待时间为窗口剩余时间
+     */
+    private static final String FIXED_WINDOW_SCRIPT = SCRIPT_HEADER +
+            "local current = tonumber(redis.call('get', key) or '0')\n" +
+            "if current >= limit then\n" +
+            "    local ttl = redis.call('pttl', key)\n" +
+            "    if ttl < 0 then\n" +
+            "        redis.call('pexpire', key, window)\n" +
+            "        ttl = window\n" +
+            "    end\n" +
+            "    return {0, ttl}\n" +
+            "end\n" +
+            "if redis.call('incr', key) == 1 then\n" +
+            "    redis.call('pexpire', key, window)\n" +
+            "end\n" +
+            "return {1, 0}";
+
+    /**
+     * 滑动窗口日志：有序集合记录窗口内每次请求，等待时间为最早一条记录移出窗口的时间
+     */
+    private static final String SLIDING_WINDOW_LOG_SCRIPT = SCRIPT_HEADER +
+            "redis.call('zremrangebyscore', key, 0, now - window)\n" +
+            "if redis.call('zcard', key) < limit then\n" +
+            "    redis.call('zadd', key, now, now .. ':' .. ARGV[3])\n" +
+            "    redis.call('pexpire', key, window)\n" +
+            "    return {1, 0}\n" +
+            "end\n" +
+            "local oldest = redis.call('zrange', key, 0, 0, 'withscores')\n" +
+            "return {0, math.max(tonumber(oldest[2]) + window - now, 1)}";
+
+    /**
+     * 滑动窗口计数：哈希中保存当前与上一窗口的计数，按上一窗口剩余占比加权
+     */
+    private static final String SLIDING_WINDOW_COUNTER_SCRIPT = SCRIPT_HEADER +
+            "local index = math.floor(now / window)\n" +
+            "local elapsed = now - index * window\n" +
+            "local counts = redis.call('hmget', key, index, index - 1)\n" +
+            "local current = tonumber(counts[1] or '0')\n" +
+            "local previous = tonumber(counts[2] or '0')\n" +
+            "if previous * (window - elapsed) / window + current + 1 <= limit then\n" +
+            "    redis.call('hincrby', key, index, 1)\n" +
+            "    redis.call('hdel', key, index - 2)\n" +
+            "    redis.call('pexpire', key, window * 2)\n" +
+            "    return {1, 0}\n" +
+            "end\n" +
+            "if current + 1 > limit then\n" +
+            "    return {0, window - elapsed + math.ceil(window * (current + 1 - limit) / current)}\n" +
+            "end\n" +
+            "return {0, math.max(math.ceil((previous * (window - elapsed) / window + current + 1 - limit) * window / previous), 1)}";
+
+    /**
+     * 令牌桶：哈希中保存剩余令牌数与上次补充时间，按第四个参数一次最多取出多枚令牌（用于混合模式租借），
+     * 返回 {实际取出的令牌数, 需等待毫秒数}，等待时间为补足一个令牌所需的时间
+     */
+    private static final String TOKEN_BUCKET_SCRIPT = SCRIPT_HEADER +
+            "local requested = tonumber(ARGV[4] or '1')\n" +
+            "local rate = limit / window\n" +
+            "local bucket = redis.call('hmget', key, 'tokens', 'timestamp')\n" +
+            "local tokens = tonumber(bucket[1])\n" +
+            "local timestamp = tonumber(bucket[2])\n" +
+            "if tokens == nil or timestamp == nil then\n" +
+            "    tokens = limit\n" +
+            "    timestamp = now\n" +
+            "end\n" +
+            "tokens = math.min(limit, tokens + math.max(now - timestamp, 0) * rate)\n" +
+            "local granted = math.min(requested, math.floor(tokens))\n" +
+            "local wait = 0\n" +
+            "if granted > 0 then\n" +
+            "    tokens = tokens - granted\n" +
+            "else\n" +
+            "    wait = math.max(math.ceil((1 - tokens) / rate), 1)\n" +
+            "end\n" +
+            "redis.call('hmset', key, 'tokens', tostring(tokens), 'timestamp', now)\n" +
+            "redis.call('pexpire', key, window)\n" +
+            "return {granted, wait}";
+
+    @SuppressWarnings("rawtypes")
+    private final Map<LimitAlgorithm, RedisScript<List>> scripts = new EnumMap<>(LimitAlgorithm.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    public RedisRateLimiter()
+    {
+        scripts.put(LimitAlgorithm.FIXED_WINDOW, createScript(FIXED_WINDOW_SCRIPT));
+        scripts.put(LimitAlgorithm.SLIDING_WINDOW_LOG, createScript(SLIDING_WINDOW_LOG_SCRIPT));
+        scripts.put(LimitAlgorithm.SLIDING_WINDOW_COUNTER, createScript(SLIDING_WINDOW_COUNTER_SCRIPT));
+        scripts.put(LimitAlgorithm.TOKEN_BUCKET, createScript(TOKEN_BUCKET_SCRIPT));
+    }
+
+    /**
+     * 尝试获取一次访问许可
+     *
+     * @param key 限流键
+     * @param algorithm 限流算法
+     * @param count 窗口内允许的次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @return 需等待的毫秒数，0表示放行
+     */
+    public long tryAcquire(String key, LimitAlgorithm algorithm, int count, long windowMillis)
+    {
+        List<?> result = execute(scripts.get(algorithm), key, count, windowMillis, 1);
+        if (toLong(result.get(0)) == 1)
+        {
+            return 0;
+        }
+        return Math.max(toLong(result.get(1)), 1);
+    }
+
+    /**
+     * 按令牌桶算法一次租借多枚令牌，与 {@link LimitAlgorithm#TOKEN_BUCKET} 共用同一份桶数据
+     *
+     * @param key 限流键
+     * @param count 窗口内允许的次数
+     * @param windowMillis 窗口长度（毫秒）
+     * @param requested 期望租借的令牌数
+     * @return 租借结果
+     */
+    public Lease lease(String key, int count, long windowMillis, int requested)
+    {
+        List<?> result = execute(scripts.get(LimitAlgorithm.TOKEN_BUCKET), key, count, windowMillis, requested);
+        return new Lease(toLong(result.get(0)), toLong(result.get(1)));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<?> execute(RedisScript<List> script, String key, int count, long windowMillis, int requested)
+    {
+        // 第三个参数用于区分滑动窗口日志中同一毫秒内的多次请求，第四个参数为令牌桶一次取出的令牌数
+        List<?> result = stringRedisTemplate.execute(script, Collections.singletonList(key),
+                String.valueOf(count), String.valueOf(windowMillis),
+                Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX),
+                String.valueOf(requested));
+        if (result == null || result.size() < 2)
+        {
+            throw new IllegalStateException("限流脚本返回结果异常: " + result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> createScript(String scriptText)
+    {
+        return new DefaultRedisScript<>(scriptText, List.class);
+    }
+
+    private static long toLong(Object value)
+    {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    /**
+     * 令牌租借结果
+     */
+    public static final class Lease
+    {
+        /** 实际租借到的令牌数 */
+        private final long granted;
+
+        /** 未租借到令牌时需等待的毫秒数 */
+        private final long waitMillis;
+
+        public Lease(long granted, long waitMillis)
+        {
+            this.granted = granted;
+            this.waitMillis = waitMillis;
+        }
+
+        public long getGranted()
+        {
+            return granted;
+        }
+
+        public long getWaitMillis()
+        {
+            return waitMillis;
+        }
+    }
+}
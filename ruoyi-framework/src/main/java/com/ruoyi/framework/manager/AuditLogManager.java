@@ -0,0 +1,516 @@
+package com.ruoyi.framework.manager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
+import com.ruoyi.common.constant.Constants;
+import com.ruoyi.common.utils.DateUtils;
+import com.ruoyi.common.utils.LogUtils;
+import com.ruoyi.common.utils.ServletUtils;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.http.UserAgentUtils;
+import com.ruoyi.common.utils.ip.AddressUtils;
+import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.common.utils.spring.SpringUtils;
+import com.ruoyi.framework.manager.log.AuditLogJournal;
+import com.ruoyi.framework.manager.log.BatchLogWriter;
+import com.ruoyi.system.domain.SysLogininfor;
+import com.ruoyi.system.domain.SysOperLog;
+import com.ruoyi.system.service.ISysLogininforService;
+import com.ruoyi.system.service.ISysOperLogService;
+
+/**
+ * 审计日志管理器
+ * 操作日志与登录日志由请求线程直接写入有界无锁队列，由单个后台线程查询登录地点后合并为多行插入；应用退出时由 ShutdownManager 写完剩余日志。
+ * 开启本地日志文件时，数据库不可用（连接失败、超时）时的批次与队列写满时的日志转存到本地文件，数据库恢复后由同一线程回放，内存占用保持有界。
+ * 数据库因数据错误拒绝的批次改为逐条写入，被拒绝的日志计数后丢弃，不会阻塞后续日志与回放
+ *
+ * @author ruoyi
+ */
+@Component
+public class AuditLogManager
+{
+    private static final Logger log = LoggerFactory.getLogger(AuditLogManager.class);
+
+    private static final Logger sys_user_logger = LoggerFactory.getLogger("sys-user");
+
+    /** 写入线程空闲时的休眠时间（毫秒） */
+    private static final long IDLE_PARK_MILLIS = 100;
+
+    /** 退出时等待剩余日志写完的最长时间（毫秒） */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    /** 每轮最多回放的批次数，避免长时间占用写入线程 */
+    private static final int REPLAY_BATCHES_PER_ROUND = 10;
+
+    /** 日志类型：操作日志 */
+    private static final byte TYPE_OPER_LOG = 1;
+
+    /** 日志类型：登录日志 */
+    private static final byte TYPE_LOGININFOR = 2;
+
+    /** 队列容量 */
+    @Value("${ruoyi.auditLog.bufferSize:8192}")
+    private int bufferSize;
+
+    /** 批次大小 */
+    @Value("${ruoyi.auditLog.batchSize:200}")
+    private int batchSize;
+
+    /** 最长等待时间（毫秒） */
+    @Value("${ruoyi.auditLog.flushInterval:1000}")
+    private long flushInterval;
+
+    /** 是否开启本地日志文件 */
+    @Value("${ruoyi.auditLog.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    /** 本地日志文件目录 */
+    @Value("${ruoyi.auditLog.journal.path:./journal}")
+    private String journalPath;
+
+    /** 单个分段文件大小（MB） */
+    @Value("${ruoyi.auditLog.journal.segmentSize:16}")
+    private int segmentSize;
+
+    /** 本地日志文件总大小上限（MB） */
+    @Value("${ruoyi.auditLog.journal.maxSize:1024}")
+    private int maxSize;
+
+    /** 数据库不可用时的回放重试间隔（毫秒） */
+    @Value("${ruoyi.auditLog.journal.replayInterval:5000}")
+    private long replayInterval;
+
+    @Autowired
+    private ISysOperLogService operLogService;
+
+    @Autowired
+    private ISysLogininforService logininforService;
+
+    private BatchLogWriter<SysOperLog> operLogWriter;
+
+    private BatchLogWriter<SysLogininfor> logininforWriter;
+
+    /** 本地日志文件，未开启时为空 */
+    private AuditLogJournal journal;
+
+    /** 数据库是否可用，连接失败或超时后置为false，回放时恢复 */
+    private volatile boolean databaseAvailable = true;
+
+    /** 回放时被数据库拒绝或无法解析而丢弃的日志数 */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /** 下次回放时间，仅写入线程访问 */
+    private long nextReplayTime;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init()
+    {
+        if (journalEnabled)
+        {
+            try
+            {
+                journal = new AuditLogJournal(Paths.get(journalPath), segmentSize * 1024 * 1024,
+                        Math.max(maxSize / segmentSize, 1));
+            }
+            catch (IOException e)
+            {
+                log.error("审计日志本地文件初始化失败，数据库不可用时日志将丢弃", e);
+            }
+        }
+        operLogWriter = new BatchLogWriter<>("操作日志", bufferSize, batchSize, flushInterval, this::writeOperLogs);
+        logininforWriter = new BatchLogWriter<>("登录日志", bufferSize, batchSize, flushInterval, this::writeLogininfors);
+        operLogWriter.setFallback(this::writeOperLog);
+        logininforWriter.setFallback(this::writeLogininfor);
+        if (journal != null)
+        {
+            operLogWriter.setOverflow(item -> spill(TYPE_OPER_LOG, Collections.singletonList(item)));
+            logininforWriter.setOverflow(item -> spill(TYPE_LOGININFOR, Collections.singletonList(item)));
+        }
+        running = true;
+        worker = new Thread(this::work, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public static AuditLogManager me()
+    {
+        return SpringUtils.getBean(AuditLogManager.class);
+    }
+
+    /**
+     * 记录登录信息，请求相关信息在当前线程获取，登录地点由写入线程查询
+     *
+     * @param username 用户名
+     * @param status 状态
+     * @param message 消息
+     */
+    public void recordLogininfor(String username, String status, String message)
+    {
+        String userAgent = ServletUtils.getRequest().getHeader("User-Agent");
+        SysLogininfor logininfor = new SysLogininfor();
+        logininfor.setUserName(username);
+        logininfor.setIpaddr(IpUtils.getIpAddr());
+        // 获取客户端浏览器
+        logininfor.setBrowser(UserAgentUtils.getBrowser(userAgent));
+        // 获取客户端操作系统
+        logininfor.setOs(UserAgentUtils.getOperatingSystem(userAgent));
+        logininfor.setMsg(message);
+        logininfor.setLoginTime(DateUtils.getNowDate());
+        // 日志状态
+        if (StringUtils.equalsAny(status, Constants.LOGIN_SUCCESS, Constants.LOGOUT, Constants.REGISTER))
+        {
+            logininfor.setStatus(Constants.SUCCESS);
+        }
+        else if (Constants.LOGIN_FAIL.equals(status))
+        {
+            logininfor.setStatus(Constants.FAIL);
+        }
+        recordLogininfor(logininfor);
+    }
+
+    /**
+     * 记录操作日志，操作地点由写入线程查询
+     *
+     * @param operLog 操作日志
+     */
+    public void recordOper(SysOperLog operLog)
+    {
+        if (operLog.getOperTime() == null)
+        {
+            operLog.setOperTime(DateUtils.getNowDate());
+        }
+        if (operLogWriter.publish(operLog))
+        {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * 记录登录日志
+     *
+     * @param logininfor 登录日志
+     */
+    public void recordLogininfor(SysLogininfor logininfor)
+    {
+        if (logininforWriter.publish(logininfor))
+        {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * 停止写入线程，剩余日志立即写入
+     */
+    public void shutdown()
+    {
+        running = false;
+        LockSupport.unpark(worker);
+        try
+        {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null)
+        {
+            journal.close();
+        }
+        log.info("审计日志写入统计：{}，{}，{}，回放丢弃{}条", operLogWriter, logininforWriter, journal, rejected.get());
+    }
+
+    public BatchLogWriter<SysOperLog> getOperLogWriter()
+    {
+        return operLogWriter;
+    }
+
+    public BatchLogWriter<SysLogininfor> getLogininforWriter()
+    {
+        return logininforWriter;
+    }
+
+    private void work()
+    {
+        while (true)
+        {
+            boolean stopping = !running;
+            int count = 0;
+            try
+            {
+                long now = System.currentTimeMillis();
+                count = operLogWriter.drain(now, stopping) + logininforWriter.drain(now, stopping);
+                if (journal != null && !stopping && now >= nextReplayTime)
+                {
+                    count += replay(now);
+                }
+            }
+            catch (Exception e)
+            {
+                log.error("审计日志写入线程异常", e);
+            }
+            if (stopping && operLogWriter.isIdle() && logininforWriter.isIdle())
+            {
+                return;
+            }
+            if (count == 0)
+            {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.min(flushInterval, IDLE_PARK_MILLIS)));
+            }
+        }
+    }
+
+    private void writeOperLogs(List<SysOperLog> logs)
+    {
+        locateOperLogs(logs);
+        write(TYPE_OPER_LOG, logs, () -> operLogService.batchInsertOperlog(logs));
+    }
+
+    private void writeLogininfors(List<SysLogininfor> logs)
+    {
+        locateLogininfors(logs);
+        write(TYPE_LOGININFOR, logs, () -> logininforService.batchInsertLogininfor(logs));
+    }
+
+    /**
+     * 单条写入操作日志，整批写入因数据错误失败时使用
+     */
+    private void writeOperLog(SysOperLog operLog)
+    {
+        write(TYPE_OPER_LOG, Collections.singletonList(operLog), () -> operLogService.insertOperlog(operLog));
+    }
+
+    /**
+     * 单条写入登录日志，整批写入因数据错误失败时使用
+     */
+    private void writeLogininfor(SysLogininfor logininfor)
+    {
+        write(TYPE_LOGININFOR, Collections.singletonList(logininfor), () -> logininforService.insertLogininfor(logininfor));
+    }
+
+    /**
+     * 查询操作地点，已查询过的跳过
+     */
+    private static void locateOperLogs(List<SysOperLog> logs)
+    {
+        for (SysOperLog operLog : logs)
+        {
+            if (operLog != null && operLog.getOperLocation() == null)
+            {
+                operLog.setOperLocation(AddressUtils.getRealAddressByIP(operLog.getOperIp()));
+            }
+        }
+    }
+
+    /**
+     * 查询登录地点并打印登录日志，已查询过的跳过
+     */
+    private static void locateLogininfors(List<SysLogininfor> logs)
+    {
+        for (SysLogininfor logininfor : logs)
+        {
+            if (logininfor == null || logininfor.getLoginLocation() != null)
+            {
+                continue;
+            }
+            logininfor.setLoginLocation(AddressUtils.getRealAddressByIP(logininfor.getIpaddr()));
+            StringBuilder s = new StringBuilder();
+            s.append(LogUtils.getBlock(logininfor.getIpaddr()));
+            s.append(logininfor.getLoginLocation());
+            s.append(LogUtils.getBlock(logininfor.getUserName()));
+            s.append(LogUtils.getBlock(logininfor.getStatus()));
+            s.append(LogUtils.getBlock(logininfor.getMsg()));
+            // 打印信息到日志
+            sys_user_logger.info(s.toString());
+        }
+    }
+
+    /**
+     * 写入数据库，数据库不可用时转存本地文件；数据错误抛给批量写入器逐条重试
+     */
+    private <T> void write(byte type, List<T> logs, Runnable insert)
+    {
+        if (journal != null && !databaseAvailable)
+        {
+            spill(type, logs);
+            return;
+        }
+        try
+        {
+            insert.run();
+        }
+        catch (RuntimeException e)
+        {
+            if (journal == null || !BatchLogWriter.isTransient(e))
+            {
+                throw e;
+            }
+            databaseAvailable = false;
+            log.error("审计日志写入数据库失败，转存本地文件'{}'", e.getMessage());
+            spill(type, logs);
+        }
+    }
+
+    private <T> void spill(byte type, List<T> logs)
+    {
+        List<byte[]> payloads = new ArrayList<>(logs.size());
+        for (T item : logs)
+        {
+            payloads.add(JSONB.toBytes(item));
+        }
+        try
+        {
+            journal.append(type, payloads);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 回放本地文件中的日志；本轮全部成功且仍有剩余时下一轮立即继续，数据库不可用时按间隔重试
+     */
+    private int replay(long now)
+    {
+        int count = 0;
+        databaseAvailable = true;
+        try
+        {
+            for (int i = 0; i < REPLAY_BATCHES_PER_ROUND; i++)
+            {
+                int replayed = journal.replay(batchSize, this::insertReplayed);
+                count += replayed;
+                // 逐条写入中途数据库不可用时只推进已处理的部分
+                if (replayed == 0 || !databaseAvailable)
+                {
+                    break;
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            databaseAvailable = false;
+            log.warn("审计日志回放失败，{}毫秒后重试'{}'", replayInterval, e.getMessage());
+        }
+        nextReplayTime = databaseAvailable && count > 0 ? now : now + replayInterval;
+        return count;
+    }
+
+    private int insertReplayed(byte type, List<byte[]> payloads)
+    {
+        // 队列写满时直接转存的日志尚未查询地点
+        if (type == TYPE_OPER_LOG)
+        {
+            List<SysOperLog> logs = decode(payloads, SysOperLog.class);
+            locateOperLogs(logs);
+            return insertReplayedLogs(logs, operLogService::batchInsertOperlog, operLogService::insertOperlog);
+        }
+        else if (type == TYPE_LOGININFOR)
+        {
+            List<SysLogininfor> logs = decode(payloads, SysLogininfor.class);
+            locateLogininfors(logs);
+            return insertReplayedLogs(logs, logininforService::batchInsertLogininfor,
+                    logininforService::insertLogininfor);
+        }
+        log.warn("未知的审计日志类型{}，已跳过{}条", type, payloads.size());
+        rejected.addAndGet(payloads.size());
+        return payloads.size();
+    }
+
+    /**
+     * 写入回放的日志：整批写入因数据错误失败时逐条写入，被数据库拒绝或无法解析（为空）的日志计数后丢弃
+     *
+     * @return 从头开始已处理的条数，小于总数表示数据库不可用，剩余日志留待下次回放
+     */
+    private <T> int insertReplayedLogs(List<T> logs, Consumer<List<T>> batchInsert, Consumer<T> singleInsert)
+    {
+        List<T> valid = new ArrayList<>(logs);
+        valid.removeIf(item -> item == null);
+        try
+        {
+            if (!valid.isEmpty())
+            {
+                batchInsert.accept(valid);
+            }
+            rejected.addAndGet(logs.size() - valid.size());
+            return logs.size();
+        }
+        catch (RuntimeException e)
+        {
+            if (BatchLogWriter.isTransient(e))
+            {
+                databaseAvailable = false;
+                log.warn("审计日志回放失败，{}毫秒后重试'{}'", replayInterval, e.getMessage());
+                return 0;
+            }
+            log.warn("审计日志回放批量写入{}条失败，改为逐条写入'{}'", valid.size(), e.getMessage());
+        }
+        for (int i = 0; i < logs.size(); i++)
+        {
+            T item = logs.get(i);
+            if (item == null)
+            {
+                rejected.incrementAndGet();
+                continue;
+            }
+            try
+            {
+                singleInsert.accept(item);
+            }
+            catch (RuntimeException e)
+            {
+                if (BatchLogWriter.isTransient(e))
+                {
+                    databaseAvailable = false;
+                    log.warn("审计日志回放中断，{}毫秒后重试'{}'", replayInterval, e.getMessage());
+                    return i;
+                }
+                rejected.incrementAndGet();
+                log.error("审计日志被数据库拒绝，已丢弃'{}'：{}", e.getMessage(), JSON.toJSONString(item));
+            }
+        }
+        return logs.size();
+    }
+
+    /**
+     * 反序列化日志，无法解析的记录为空
+     */
+    private static <T> List<T> decode(List<byte[]> payloads, Class<T> clazz)
+    {
+        List<T> logs = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads)
+        {
+            try
+            {
+                logs.add(JSONB.parseObject(payload, clazz));
+            }
+            catch (RuntimeException e)
+            {
+                log.error("审计日志无法解析，已丢弃'{}'", e.getMessage());
+                logs.add(null);
+            }
+        }
+        return logs;
+    }
+}
@@ -2,6 +2,7 @@ package com.ruoyi.framework.manager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import jakarta.annotation.PreDestroy;
 
@@ -15,10 +16,14 @@ public class ShutdownManager
 {
     private static final Logger logger = LoggerFactory.getLogger("sys-user");
 
+    @Autowired
+    private AuditLogManager auditLogManager;
+
     @PreDestroy
     public void destroy()
     {
         shutdownAsyncManager();
+        shutdownAuditLogManager();
     }
 
     /**
@@ -36,4 +41,20 @@ public class ShutdownManager
             logger.error(e.getMessage(), e);
         }
     }
+
+    /**
+     * 写完队列中剩余的审计日志，需在异步任务线程池关闭之后执行
+     */
+    private void shutdownAuditLogManager()
+    {
+        try
+        {
+            logger.info("====写入剩余审计日志====");
+            auditLogManager.shutdown();
+        }
+        catch (Exception e)
+        {
+            logger.error(e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,454 @@
+package com.ruoyi.framework.manager.log;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 审计日志本地日志文件
+ * 数据库不可用或内存队列写满时，日志以追加方式写入内存映射的分段文件，待数据库恢复后按写入顺序回放。
+ *
+ * 分段文件格式：文件头(16字节：已回放位置8字节 + 魔数4字节 + 保留4字节) + 若干条记录，
+ * 记录格式：长度(4字节) + CRC32(4字节) + 类型(1字节) + 数据；长度为0表示后续尚未写入。
+ * 已回放位置在每批回放成功后更新，进程重启后从该位置继续，不会重复写入数据库。
+ * 分段文件总数有上限，达到上限后新日志直接丢弃并计数，数据库长时间不可用时磁盘占用保持有界
+ *
+ * @author ruoyi
+ */
+public class AuditLogJournal
+{
+    private static final Logger log = LoggerFactory.getLogger(AuditLogJournal.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int MAGIC = 0x41554C47;
+
+    private static final int HEADER_SIZE = 16;
+
+    /** 记录头：长度 + CRC32 + 类型 */
+    private static final int RECORD_HEADER_SIZE = 9;
+
+    /** 每丢弃多少条打印一次告警 */
+    private static final long DISCARD_WARN_INTERVAL = 1000;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    /** 最多保留的分段文件数 */
+    private final int maxSegments;
+
+    /** 分段序号 -> 分段，按写入顺序排列 */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+
+    /** 当前写入的分段 */
+    private Segment active;
+
+    /** 目录中已使用的最大分段序号（包含无法识别而跳过的文件） */
+    private long lastSequence;
+
+    private final AtomicLong appended = new AtomicLong();
+
+    private final AtomicLong replayed = new AtomicLong();
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * @param directory 文件目录
+     * @param segmentSize 单个分段文件大小（字节）
+     * @param maxSegments 最多保留的分段文件数
+     */
+    public AuditLogJournal(Path directory, int segmentSize, int maxSegments) throws IOException
+    {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(maxSegments, 1);
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * 追加日志，分段文件数已达上限时丢弃
+     *
+     * @param type 日志类型
+     * @param payloads 序列化后的日志
+     */
+    public synchronized void append(byte type, List<byte[]> payloads) throws IOException
+    {
+        CRC32 crc = new CRC32();
+        for (byte[] payload : payloads)
+        {
+            int length = payload.length + 1;
+            if (HEADER_SIZE + RECORD_HEADER_SIZE + payload.length > segmentSize)
+            {
+                log.error("审计日志记录过大（{}字节），超过分段大小，已丢弃", payload.length);
+                continue;
+            }
+            if (active == null || active.writePosition + RECORD_HEADER_SIZE + payload.length > segmentSize)
+            {
+                if (isFull())
+                {
+                    long count = discarded.incrementAndGet();
+                    if (count == 1 || count % DISCARD_WARN_INTERVAL == 0)
+                    {
+                        log.warn("审计日志文件已达上限（{}个分段），累计丢弃{}条", maxSegments, count);
+                    }
+                    continue;
+                }
+                roll();
+            }
+            crc.reset();
+            crc.update(type);
+            crc.update(payload);
+            MappedByteBuffer buffer = active.buffer;
+            int position = active.writePosition;
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.put(position + 8, type);
+            buffer.put(position + RECORD_HEADER_SIZE, payload);
+            // 长度最后写入，读取时长度非0即表示记录完整
+            buffer.putInt(position, length);
+            active.writePosition = position + RECORD_HEADER_SIZE + payload.length;
+            appended.incrementAndGet();
+        }
+    }
+
+    /**
+     * 是否有未回放的日志
+     */
+    public synchronized boolean hasPending()
+    {
+        for (Segment segment : segments.values())
+        {
+            if (segment.readPosition < segment.writePosition)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 回放一批同类型的日志，回放位置只推进到处理器已处理的条数
+     *
+     * @param batchSize 批次大小
+     * @param handler 处理器，抛出异常表示本批失败，下次从同一位置重试
+     * @return 已处理的条数，没有待回放日志或本批未处理任何日志时返回0
+     */
+    public int replay(int batchSize, ReplayHandler handler) throws Exception
+    {
+        Segment segment;
+        List<byte[]> payloads = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        byte type;
+        int end;
+        synchronized (this)
+        {
+            segment = firstPending();
+            if (segment == null)
+            {
+                return 0;
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            type = buffer.get(segment.readPosition + 8);
+            end = segment.readPosition;
+            while (payloads.size() < batchSize && end < segment.writePosition && buffer.get(end + 8) == type)
+            {
+                int length = buffer.getInt(end);
+                byte[] payload = new byte[length - 1];
+                buffer.get(end + RECORD_HEADER_SIZE, payload);
+                payloads.add(payload);
+                end += RECORD_HEADER_SIZE + payload.length;
+                ends.add(end);
+            }
+        }
+        int handled = Math.min(handler.handle(type, payloads), payloads.size());
+        if (handled <= 0)
+        {
+            return 0;
+        }
+        end = ends.get(handled - 1);
+        synchronized (this)
+        {
+            segment.readPosition = end;
+            segment.buffer.putLong(0, end);
+            replayed.addAndGet(handled);
+            if (segment != active && segment.readPosition >= segment.writePosition)
+            {
+                delete(segment);
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * 将映射内容刷入磁盘
+     */
+    public synchronized void force()
+    {
+        for (Segment segment : segments.values())
+        {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * 刷盘并关闭文件
+     */
+    public synchronized void close()
+    {
+        for (Segment segment : segments.values())
+        {
+            segment.buffer.force();
+            closeQuietly(segment);
+        }
+        segments.clear();
+        active = null;
+    }
+
+    public long getAppended()
+    {
+        return appended.get();
+    }
+
+    public long getReplayed()
+    {
+        return replayed.get();
+    }
+
+    public long getDiscarded()
+    {
+        return discarded.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "journal[appended=" + getAppended() + ", replayed=" + getReplayed() + ", discarded=" + getDiscarded()
+                + "]";
+    }
+
+    /**
+     * 未回放完的分段数是否已达上限（已全部回放的当前分段会在切换时删除，不计入）
+     */
+    private boolean isFull()
+    {
+        int count = segments.size();
+        if (active != null && active.readPosition >= active.writePosition)
+        {
+            count--;
+        }
+        return count >= maxSegments;
+    }
+
+    private Segment firstPending()
+    {
+        for (Segment segment : segments.values())
+        {
+            if (segment.readPosition < segment.writePosition)
+            {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 启动时加载已有分段，按CRC校验确定写入位置，已全部回放的分段直接删除
+     */
+    private void recover() throws IOException
+    {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+        {
+            for (Path path : stream)
+            {
+                String name = path.getFileName().toString();
+                long sequence;
+                try
+                {
+                    sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                }
+                catch (NumberFormatException e)
+                {
+                    continue;
+                }
+                lastSequence = Math.max(lastSequence, sequence);
+                Segment segment = open(sequence, path);
+                if (segment == null)
+                {
+                    continue;
+                }
+                segments.put(sequence, segment);
+            }
+        }
+        for (Segment segment : new ArrayList<>(segments.values()))
+        {
+            if (segment.readPosition >= segment.writePosition)
+            {
+                delete(segment);
+            }
+        }
+        if (!segments.isEmpty())
+        {
+            log.info("审计日志文件待回放分段{}个", segments.size());
+        }
+    }
+
+    private Segment open(long sequence, Path path) throws IOException
+    {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE)
+        {
+            channel.close();
+            Files.deleteIfExists(path);
+            return null;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getInt(8) != MAGIC)
+        {
+            log.error("审计日志文件{}格式不正确，已跳过", path);
+            channel.close();
+            return null;
+        }
+        Segment segment = new Segment(sequence, path, channel, buffer);
+        segment.writePosition = scan(buffer);
+        segment.readPosition = (int) Math.min(Math.max(buffer.getLong(0), HEADER_SIZE), segment.writePosition);
+        return segment;
+    }
+
+    /**
+     * 顺序校验记录，返回最后一条完整记录之后的位置（进程异常退出时可能残留半条记录）
+     */
+    private static int scan(MappedByteBuffer buffer)
+    {
+        CRC32 crc = new CRC32();
+        int position = HEADER_SIZE;
+        int limit = buffer.capacity();
+        while (position + RECORD_HEADER_SIZE <= limit)
+        {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 8 + length > limit)
+            {
+                break;
+            }
+            byte[] data = new byte[length];
+            buffer.get(position + 8, data);
+            crc.reset();
+            crc.update(data);
+            if ((int) crc.getValue() != buffer.getInt(position + 4))
+            {
+                break;
+            }
+            position += 8 + length;
+        }
+        return position;
+    }
+
+    private void roll() throws IOException
+    {
+        long sequence = ++lastSequence;
+        Path path = directory.resolve(SEGMENT_PREFIX + String.format("%016d", sequence) + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putLong(0, HEADER_SIZE);
+        buffer.putInt(8, MAGIC);
+        Segment segment = new Segment(sequence, path, channel, buffer);
+        segment.writePosition = HEADER_SIZE;
+        segment.readPosition = HEADER_SIZE;
+        if (active != null)
+        {
+            active.buffer.force();
+            Segment previous = active;
+            active = segment;
+            if (previous.readPosition >= previous.writePosition)
+            {
+                delete(previous);
+            }
+        }
+        else
+        {
+            active = segment;
+        }
+        segments.put(sequence, segment);
+    }
+
+    private void delete(Segment segment)
+    {
+        segments.remove(segment.sequence);
+        closeQuietly(segment);
+        try
+        {
+            Files.deleteIfExists(segment.path);
+        }
+        catch (IOException e)
+        {
+            // 已回放位置已写入文件头，下次启动时会再次清理
+            log.warn("删除审计日志文件{}失败'{}'", segment.path, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Segment segment)
+    {
+        try
+        {
+            segment.channel.close();
+        }
+        catch (IOException e)
+        {
+            log.warn("关闭审计日志文件{}失败'{}'", segment.path, e.getMessage());
+        }
+    }
+
+    /**
+     * 回放处理器
+     */
+    public interface ReplayHandler
+    {
+        /**
+         * 处理一批同类型的日志
+         *
+         * @param type 日志类型
+         * @param payloads 序列化后的日志
+         * @return 从头开始已处理（写入或丢弃）的条数，小于本批条数时剩余日志下次重试
+         */
+        int handle(byte type, List<byte[]> payloads) throws Exception;
+    }
+
+    private static final class Segment
+    {
+        private final long sequence;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        /** 下一条记录的写入位置 */
+        private int writePosition;
+
+        /** 下一条待回放记录的位置 */
+        private int readPosition;
+
+        private Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer)
+        {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
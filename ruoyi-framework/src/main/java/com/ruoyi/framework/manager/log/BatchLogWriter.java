@@ -0,0 +1,291 @@
+package com.ruoyi.framework.manager.log;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * 日志批量写入器
+ * 请求线程只向环形队列写入，写入线程按批次大小或等待时间（先到者为准）合并为一次多行插入；
+ * 整批因数据错误（而非连接失败、超时）被拒绝时改为逐条写入，一条错误数据只损失该条日志
+ *
+ * @author ruoyi
+ */
+public class BatchLogWriter<T>
+{
+    private static final Logger log = LoggerFactory.getLogger(BatchLogWriter.class);
+
+    /** 每丢弃多少条打印一次告警 */
+    private static final long DROP_WARN_INTERVAL = 1000;
+
+    private final String name;
+
+    private final RingBuffer<T> buffer;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    private final Consumer<List<T>> sink;
+
+    /** 队列已满时的转存处理，为空则丢弃 */
+    private Consumer<T> overflow;
+
+    /** 单条写入，整批写入因数据错误失败时逐条重试，为空则整批丢弃 */
+    private Consumer<T> fallback;
+
+    /** 已从队列取出、等待写入的日志，仅写入线程访问 */
+    private final List<T> pending;
+
+    /** 首条待写入日志的取出时间 */
+    private long pendingSince;
+
+    private final AtomicLong accepted = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong spilled = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * @param name 名称
+     * @param capacity 队列容量
+     * @param batchSize 批次大小
+     * @param flushInterval 最长等待时间（毫秒）
+     * @param sink 批量写入
+     */
+    public BatchLogWriter(String name, int capacity, int batchSize, long flushInterval, Consumer<List<T>> sink)
+    {
+        this.name = name;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.sink = sink;
+        this.pending = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * 设置队列已满时的转存处理
+     *
+     * @param overflow 转存处理
+     */
+    public void setOverflow(Consumer<T> overflow)
+    {
+        this.overflow = overflow;
+    }
+
+    /**
+     * 设置整批写入因数据错误失败时的单条写入
+     *
+     * @param fallback 单条写入
+     */
+    public void setFallback(Consumer<T> fallback)
+    {
+        this.fallback = fallback;
+    }
+
+    /**
+     * 是否为连接失败、超时等暂时性错误，此类错误逐条重试也无法成功
+     *
+     * @param e 异常
+     * @return 结果
+     */
+    public static boolean isTransient(Throwable e)
+    {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException || cause instanceof SQLNonTransientConnectionException)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 提交日志，队列已满时转存，未设置转存或转存失败时丢弃
+     *
+     * @param item 日志
+     * @return 是否已达到一个批次，调用方可据此唤醒写入线程
+     */
+    public boolean publish(T item)
+    {
+        if (buffer.offer(item))
+        {
+            accepted.incrementAndGet();
+            return buffer.size() >= batchSize;
+        }
+        if (overflow != null)
+        {
+            try
+            {
+                overflow.accept(item);
+                spilled.incrementAndGet();
+                return true;
+            }
+            catch (Exception e)
+            {
+                log.error("{}转存失败", name, e);
+            }
+        }
+        long count = dropped.incrementAndGet();
+        if (count == 1 || count % DROP_WARN_INTERVAL == 0)
+        {
+            log.warn("{}队列已满（容量{}），累计丢弃{}条", name, buffer.capacity(), count);
+        }
+        return false;
+    }
+
+    /**
+     * 取出并按需写入一个批次，仅由写入线程调用
+     *
+     * @param now 当前时间
+     * @param force 是否忽略等待时间立即写入
+     * @return 本次写入的条数
+     */
+    public int drain(long now, boolean force)
+    {
+        if (pending.size() < batchSize)
+        {
+            buffer.drainTo(pending, batchSize - pending.size());
+        }
+        if (pending.isEmpty())
+        {
+            return 0;
+        }
+        if (pendingSince == 0)
+        {
+            pendingSince = now;
+        }
+        if (pending.size() < batchSize && !force && now - pendingSince < flushInterval)
+        {
+            return 0;
+        }
+        int size = pending.size();
+        try
+        {
+            sink.accept(pending);
+            written.addAndGet(size);
+        }
+        catch (Exception e)
+        {
+            if (fallback == null || isTransient(e))
+            {
+                failed.addAndGet(size);
+                log.error("{}批量写入{}条失败", name, size, e);
+            }
+            else
+            {
+                log.warn("{}批量写入{}条失败，改为逐条写入'{}'", name, size, e.getMessage());
+                writeOneByOne();
+            }
+        }
+        finally
+        {
+            batches.incrementAndGet();
+            pending.clear();
+            pendingSince = 0;
+        }
+        return size;
+    }
+
+    /**
+     * 逐条写入待写入列表，数据库拒绝的日志丢弃，出现暂时性错误时剩余日志不再尝试
+     */
+    private void writeOneByOne()
+    {
+        for (int i = 0; i < pending.size(); i++)
+        {
+            try
+            {
+                fallback.accept(pending.get(i));
+                written.incrementAndGet();
+            }
+            catch (Exception e)
+            {
+                if (isTransient(e))
+                {
+                    failed.addAndGet(pending.size() - i);
+                    log.error("{}逐条写入中断，丢弃剩余{}条", name, pending.size() - i, e);
+                    return;
+                }
+                failed.incrementAndGet();
+                log.error("{}写入失败，已丢弃'{}'", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 队列与待写入列表是否都已为空
+     */
+    public boolean isIdle()
+    {
+        return pending.isEmpty() && buffer.isEmpty();
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getQueueSize()
+    {
+        return buffer.size();
+    }
+
+    public long getAccepted()
+    {
+        return accepted.get();
+    }
+
+    public long getWritten()
+    {
+        return written.get();
+    }
+
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+    public long getSpilled()
+    {
+        return spilled.get();
+    }
+
+    public long getFailed()
+    {
+        return failed.get();
+    }
+
+    public long getBatches()
+    {
+        return batches.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + "[queued=" + getQueueSize() + ", accepted=" + getAccepted() + ", written=" + getWritten()
+                + ", spilled=" + getSpilled() + ", dropped=" + getDropped() + ", failed=" + getFailed()
+                + ", batches=" + getBatches() + "]";
+    }
+}
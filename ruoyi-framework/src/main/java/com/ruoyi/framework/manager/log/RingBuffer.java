@@ -0,0 +1,137 @@
+package com.ruoyi.framework.manager.log;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形队列（多生产者、单消费者）
+ * 每个槽位记录一个序号，生产者以CAS抢占写入位置，消费者按序号判断槽位是否已写入；队列满时写入失败而不是阻塞
+ *
+ * @author ruoyi
+ */
+public class RingBuffer<E>
+{
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    /** 槽位序号：等于写入位置表示可写，等于写入位置+1表示可读 */
+    private final AtomicLongArray sequences;
+
+    /** 下一个写入位置 */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 下一个读取位置，仅消费者线程修改 */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public RingBuffer(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入元素
+     *
+     * @param element 元素
+     * @return 队列已满返回false
+     */
+    public boolean offer(E element)
+    {
+        long position = tail.get();
+        while (true)
+        {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0)
+            {
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (diff < 0)
+            {
+                return false;
+            }
+            else
+            {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 读取元素，只能由消费者线程调用
+     *
+     * @return 队列为空（或下一个槽位尚未写完）返回null
+     */
+    public E poll()
+    {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1)
+        {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.set(index, null);
+        sequences.set(index, position + capacity);
+        head.set(position + 1);
+        return element;
+    }
+
+    /**
+     * 批量读取元素，只能由消费者线程调用
+     *
+     * @param target 目标列表
+     * @param maxElements 最多读取数量
+     * @return 读取数量
+     */
+    public int drainTo(List<E> target, int maxElements)
+    {
+        int count = 0;
+        E element;
+        while (count < maxElements && (element = poll()) != null)
+        {
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 当前元素数量（近似值）
+     */
+    public int size()
+    {
+        return (int) Math.max(tail.get() - head.get(), 0);
+    }
+
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    public int capacity()
+    {
+        return capacity;
+    }
+}
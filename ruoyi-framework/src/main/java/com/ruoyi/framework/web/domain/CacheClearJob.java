@@ -0,0 +1,134 @@
+package com.ruoyi.framework.web.domain;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存清理任务进度
+ *
+ * @author ruoyi
+ */
+public class CacheClearJob
+{
+    /** 执行中 */
+    public static final String RUNNING = "running";
+
+    /** 已完成 */
+    public static final String SUCCESS = "success";
+
+    /** 执行失败 */
+    public static final String FAIL = "fail";
+
+    /**
+     * 任务编号
+     */
+    private final String jobId;
+
+    /**
+     * 匹配模式
+     */
+    private final String pattern;
+
+    /**
+     * 任务状态
+     */
+    private volatile String status = RUNNING;
+
+    /**
+     * 已扫描键数量
+     */
+    private final AtomicLong scanned = new AtomicLong();
+
+    /**
+     * 已删除键数量
+     */
+    private final AtomicLong deleted = new AtomicLong();
+
+    /**
+     * 开始时间
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * 结束时间
+     */
+    private volatile long endTime;
+
+    /**
+     * 失败原因
+     */
+    private volatile String msg;
+
+    public CacheClearJob(String jobId, String pattern)
+    {
+        this.jobId = jobId;
+        this.pattern = pattern;
+    }
+
+    public void addScanned(long count)
+    {
+        scanned.addAndGet(count);
+    }
+
+    public void addDeleted(long count)
+    {
+        deleted.addAndGet(count);
+    }
+
+    public void finish()
+    {
+        this.endTime = System.currentTimeMillis();
+        this.status = SUCCESS;
+    }
+
+    public void fail(String msg)
+    {
+        this.endTime = System.currentTimeMillis();
+        this.msg = msg;
+        this.status = FAIL;
+    }
+
+    public boolean isFinished()
+    {
+        return !RUNNING.equals(status);
+    }
+
+    public String getJobId()
+    {
+        return jobId;
+    }
+
+    public String getPattern()
+    {
+        return pattern;
+    }
+
+    public String getStatus()
+    {
+        return status;
+    }
+
+    public long getScanned()
+    {
+        return scanned.get();
+    }
+
+    public long getDeleted()
+    {
+        return deleted.get();
+    }
+
+    public long getStartTime()
+    {
+        return startTime;
+    }
+
+    public long getEndTime()
+    {
+        return endTime;
+    }
+
+    public String getMsg()
+    {
+        return msg;
+    }
+}
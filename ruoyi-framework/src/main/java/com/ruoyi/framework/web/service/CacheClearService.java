@@ -0,0 +1,111 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.redis.RedisCache;
+import com.ruoyi.common.core.redis.RedisScanResult;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.framework.manager.AsyncManager;
+import com.ruoyi.framework.web.domain.CacheClearJob;
+
+/**
+ * 缓存批量清理
+ * 在后台线程中按 SCAN 分批扫描匹配的键，并以管道方式批量 UNLINK，调用方立即返回任务编号后轮询进度；
+ * 权限字典的编号已写入各登录会话，清空后重新分配会使新旧编号含义不一致，因此始终保留
+ *
+ * @author ruoyi
+ */
+@Component
+public class CacheClearService
+{
+    private static final Logger log = LoggerFactory.getLogger(CacheClearService.class);
+
+    /** 单次SCAN的建议数量 */
+    private static final int SCAN_COUNT = 1000;
+
+    /** 每条UNLINK命令包含的键数量 */
+    private static final int UNLINK_BATCH_SIZE = 100;
+
+    /** 已结束任务的保留时间（毫秒） */
+    private static final long JOB_RETAIN_MILLIS = 60 * 60 * 1000L;
+
+    /** 不参与批量清理的键 */
+    private static final Set<String> RETAINED_KEYS = Set.of(CacheConstants.PERMISSION_DICT_KEY);
+
+    @Autowired
+    private RedisCache redisCache;
+
+    /** 任务编号 -> 任务进度 */
+    private final Map<String, CacheClearJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 提交清理任务
+     *
+     * @param pattern 键名匹配模式
+     * @return 任务进度
+     */
+    public CacheClearJob submit(String pattern)
+    {
+        removeExpiredJobs();
+        CacheClearJob job = new CacheClearJob(IdUtils.fastSimpleUUID(), pattern);
+        jobs.put(job.getJobId(), job);
+        AsyncManager.me().execute(new TimerTask()
+        {
+            @Override
+            public void run()
+            {
+                clear(job);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * 查询清理任务进度
+     *
+     * @param jobId 任务编号
+     * @return 任务进度，不存在返回null
+     */
+    public CacheClearJob getJob(String jobId)
+    {
+        return jobs.get(jobId);
+    }
+
+    private void clear(CacheClearJob job)
+    {
+        try
+        {
+            String cursor = RedisScanResult.FINISHED;
+            do
+            {
+                RedisScanResult result = redisCache.scan(job.getPattern(), cursor, SCAN_COUNT);
+                List<String> keys = result.getKeys();
+                job.addScanned(keys.size());
+                keys.removeIf(RETAINED_KEYS::contains);
+                job.addDeleted(redisCache.unlink(keys, UNLINK_BATCH_SIZE));
+                cursor = result.getCursor();
+            }
+            while (!RedisScanResult.FINISHED.equals(cursor));
+            job.finish();
+        }
+        catch (Exception e)
+        {
+            log.error("清理缓存[{}]异常", job.getPattern(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void removeExpiredJobs()
+    {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.getEndTime() > JOB_RETAIN_MILLIS);
+    }
+}
@@ -0,0 +1,226 @@
+package com.ruoyi.framework.web.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.utils.uuid.IdUtils;
+
+/**
+ * 登录用户本地缓存（一级缓存），位于Redis（二级缓存）之前
+ * 条目存活时间取 短TTL 与 会话过期时间 的较小值；会话被刷新或删除时通过redis发布订阅通知其他节点失效。
+ * 缓存中保存的是写入时的副本，读取时也返回副本，并发请求各自修改自己的对象，修改后需重新写入才会生效
+ *
+ * @author ruoyi
+ */
+@Component
+public class LoginUserCache implements MessageListener
+{
+    private static final Logger log = LoggerFactory.getLogger(LoginUserCache.class);
+
+    private static final char MESSAGE_SEPARATOR = ':';
+
+    /** 是否开启本地缓存 */
+    @Value("${token.localCache.enabled:true}")
+    private boolean enabled;
+
+    /** 本地缓存有效期（秒） */
+    @Value("${token.localCache.ttl:5}")
+    private int ttl;
+
+    /** 本地缓存最大条目数 */
+    @Value("${token.localCache.maxSize:10000}")
+    private int maxSize;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /** 当前节点标识，忽略自身发出的失效通知 */
+    private final String nodeId = IdUtils.fastSimpleUUID();
+
+    /** uuid -> 缓存条目 */
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init()
+    {
+        if (enabled)
+        {
+            redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.LOGIN_TOKEN_INVALIDATE_CHANNEL));
+        }
+    }
+
+    /**
+     * 获取本地缓存的登录用户
+     *
+     * @param uuid 登录用户标识
+     * @return 登录用户副本，未命中或已过期返回null
+     */
+    public LoginUser get(String uuid)
+    {
+        if (!enabled || uuid == null)
+        {
+            return null;
+        }
+        Entry entry = cache.get(uuid);
+        if (entry == null)
+        {
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis())
+        {
+            cache.remove(uuid, entry);
+            return null;
+        }
+        return entry.loginUser.copy();
+    }
+
+    /**
+     * 写入本地缓存
+     *
+     * @param uuid 登录用户标识
+     * @param loginUser 登录用户
+     */
+    public void put(String uuid, LoginUser loginUser)
+    {
+        if (!enabled || uuid == null || loginUser == null)
+        {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expireAt = now + ttl * 1000L;
+        if (loginUser.getExpireTime() != null && loginUser.getExpireTime() < expireAt)
+        {
+            expireAt = loginUser.getExpireTime();
+        }
+        if (expireAt <= now)
+        {
+            return;
+        }
+        cache.put(uuid, new Entry(loginUser.copy(), expireAt));
+        if (cache.size() > maxSize)
+        {
+            evict(now);
+        }
+    }
+
+    /**
+     * 使本地缓存失效，并通知其他节点
+     *
+     * @param uuid 登录用户标识
+     */
+    public void invalidate(String uuid)
+    {
+        if (!enabled || uuid == null)
+        {
+            return;
+        }
+        cache.remove(uuid);
+        publish(uuid);
+    }
+
+    /**
+     * 刷新本地缓存，并通知其他节点丢弃旧数据
+     *
+     * @param uuid 登录用户标识
+     * @param loginUser 登录用户
+     */
+    public void refresh(String uuid, LoginUser loginUser)
+    {
+        if (!enabled || uuid == null)
+        {
+            return;
+        }
+        put(uuid, loginUser);
+        publish(uuid);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(MESSAGE_SEPARATOR);
+        if (index < 0 || (index == nodeId.length() && body.startsWith(nodeId)))
+        {
+            return;
+        }
+        cache.remove(body.substring(index + 1));
+    }
+
+    /**
+     * 当前缓存条目数
+     */
+    public int size()
+    {
+        return cache.size();
+    }
+
+    private void publish(String uuid)
+    {
+        try
+        {
+            stringRedisTemplate.convertAndSend(CacheConstants.LOGIN_TOKEN_INVALIDATE_CHANNEL, nodeId + MESSAGE_SEPARATOR + uuid);
+        }
+        catch (Exception e)
+        {
+            log.error("发布登录用户缓存失效通知异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 先清理过期条目，仍超出上限时再淘汰部分存量条目
+     */
+    private void evict(long now)
+    {
+        if (!evictLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            cache.values().removeIf(entry -> entry.expireAt <= now);
+            Iterator<String> iterator = cache.keySet().iterator();
+            while (cache.size() > maxSize && iterator.hasNext())
+            {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        finally
+        {
+            evictLock.unlock();
+        }
+    }
+
+    private static final class Entry
+    {
+        /** 只读副本，不直接交给调用方 */
+        private final LoginUser loginUser;
+        private final long expireAt;
+
+        private Entry(LoginUser loginUser, long expireAt)
+        {
+            this.loginUser = loginUser;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.utils.StringUtils;
+
+/**
+ * 在线会话索引
+ * 以有序集合记录在线会话（成员为会话uuid，分值为会话过期时间），并按用户名称、登录地址建立二级索引，
+ * 在线用户监控按索引分页读取，不再使用 KEYS 扫描全部会话；过期成员在查询时按分值批量清理
+ *
+ * @author ruoyi
+ */
+@Component
+public class OnlineSessionRegistry
+{
+    private static final Logger log = LoggerFactory.getLogger(OnlineSessionRegistry.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 登记或续期会话，各索引在一次管道中更新，同时清理主索引中已过期的成员
+     *
+     * @param loginUser 登录用户
+     * @param timeout 会话有效期（分钟）
+     */
+    public void register(LoginUser loginUser, int timeout)
+    {
+        String uuid = loginUser.getToken();
+        if (StringUtils.isEmpty(uuid) || loginUser.getExpireTime() == null)
+        {
+            return;
+        }
+        double score = loginUser.getExpireTime();
+        double now = System.currentTimeMillis();
+        String userKey = StringUtils.isNotEmpty(loginUser.getUsername()) ? getUserKey(loginUser.getUsername()) : null;
+        String ipKey = StringUtils.isNotEmpty(loginUser.getIpaddr()) ? getIpKey(loginUser.getIpaddr()) : null;
+        try
+        {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException
+                {
+                    operations.opsForZSet().removeRangeByScore(CacheConstants.ONLINE_SESSION_KEY, 0, now);
+                    operations.opsForZSet().add(CacheConstants.ONLINE_SESSION_KEY, uuid, score);
+                    if (userKey != null)
+                    {
+                        operations.opsForZSet().add(userKey, uuid, score);
+                        operations.expire(userKey, timeout, TimeUnit.MINUTES);
+                    }
+                    if (ipKey != null)
+                    {
+                        operations.opsForZSet().add(ipKey, uuid, score);
+                        operations.expire(ipKey, timeout, TimeUnit.MINUTES);
+                    }
+                    return null;
+                }
+            });
+        }
+        catch (Exception e)
+        {
+            log.error("登记在线会话异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 移除会话，二级索引未指定时由分值过期清理
+     *
+     * @param uuids 会话uuid集合
+     * @param userName 用户名称，可为空
+     * @param ipaddr 登录地址，可为空
+     */
+    public void unregister(Collection<String> uuids, String userName, String ipaddr)
+    {
+        if (StringUtils.isEmpty(uuids))
+        {
+            return;
+        }
+        Object[] members = uuids.toArray();
+        try
+        {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>()
+            {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) throws DataAccessException
+                {
+                    operations.opsForZSet().remove(CacheConstants.ONLINE_SESSION_KEY, members);
+                    if (StringUtils.isNotEmpty(userName))
+                    {
+                        operations.opsForZSet().remove(getUserKey(userName), members);
+                    }
+                    if (StringUtils.isNotEmpty(ipaddr))
+                    {
+                        operations.opsForZSet().remove(getIpKey(ipaddr), members);
+                    }
+                    return null;
+                }
+            });
+        }
+        catch (Exception e)
+        {
+            log.error("移除在线会话异常'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 分页查询在线会话，按过期时间倒序（即最近活跃在前）
+     *
+     * @param userName 用户名称，可为空
+     * @param ipaddr 登录地址，可为空
+     * @param pageNum 页码
+     * @param pageSize 每页数量
+     * @return 会话分页
+     */
+    public SessionPage page(String userName, String ipaddr, int pageNum, int pageSize)
+    {
+        double now = System.currentTimeMillis();
+        long start = (long) Math.max(pageNum - 1, 0) * pageSize;
+        long end = start + pageSize - 1;
+        if (StringUtils.isNotEmpty(userName) && StringUtils.isNotEmpty(ipaddr))
+        {
+            return pageIntersection(getUserKey(userName), getIpKey(ipaddr), start, end);
+        }
+        String key = CacheConstants.ONLINE_SESSION_KEY;
+        if (StringUtils.isNotEmpty(userName))
+        {
+            key = getUserKey(userName);
+        }
+        else if (StringUtils.isNotEmpty(ipaddr))
+        {
+            key = getIpKey(ipaddr);
+        }
+        // 清理已过期的成员、统计总数、读取当前页在一次管道中完成
+        String indexKey = key;
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>()
+        {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException
+            {
+                operations.opsForZSet().removeRangeByScore(indexKey, 0, now);
+                operations.opsForZSet().zCard(indexKey);
+                operations.opsForZSet().reverseRange(indexKey, start, end);
+                return null;
+            }
+        });
+        return new SessionPage(toList(results.get(2)), toLong(results.get(1)));
+    }
+
+    /**
+     * 同时按用户名称与登录地址查询：遍历用户名称索引（单个用户的会话数量有限），逐个判断是否在登录地址索引中
+     */
+    private SessionPage pageIntersection(String userKey, String ipKey, long start, long end)
+    {
+        double now = System.currentTimeMillis();
+        stringRedisTemplate.opsForZSet().removeRangeByScore(userKey, 0, now);
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(userKey, 0, -1);
+        if (StringUtils.isEmpty(members))
+        {
+            return new SessionPage(Collections.emptyList(), 0);
+        }
+        List<String> candidates = new ArrayList<>(members);
+        List<Object> scores = stringRedisTemplate.executePipelined(new SessionCallback<Object>()
+        {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException
+            {
+                for (String member : candidates)
+                {
+                    operations.opsForZSet().score(ipKey, member);
+                }
+                return null;
+            }
+        });
+        List<String> matched = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++)
+        {
+            Object score = scores.get(i);
+            if (score instanceof Number && ((Number) score).doubleValue() > now)
+            {
+                matched.add(candidates.get(i));
+            }
+        }
+        int from = (int) Math.min(start, matched.size());
+        int to = (int) Math.min(end + 1, matched.size());
+        return new SessionPage(new ArrayList<>(matched.subList(from, to)), matched.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> toList(Object value)
+    {
+        if (value instanceof Collection)
+        {
+            return new ArrayList<>((Collection<String>) value);
+        }
+        return Collections.emptyList();
+    }
+
+    private static long toLong(Object value)
+    {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static String getUserKey(String userName)
+    {
+        return CacheConstants.ONLINE_SESSION_USER_KEY + userName;
+    }
+
+    private static String getIpKey(String ipaddr)
+    {
+        return CacheConstants.ONLINE_SESSION_IP_KEY + ipaddr;
+    }
+
+    /**
+     * 会话分页结果
+     */
+    public static class SessionPage
+    {
+        /** 当前页会话uuid */
+        private final List<String> tokens;
+
+        /** 总数 */
+        private final long total;
+
+        public SessionPage(List<String> tokens, long total)
+        {
+            this.tokens = tokens;
+            this.total = total;
+        }
+
+        public List<String> getTokens()
+        {
+            return tokens;
+        }
+
+        public long getTotal()
+        {
+            return total;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.ruoyi.framework.web.service;
 
-import java.util.Set;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import com.ruoyi.common.constant.Constants;
@@ -12,6 +11,7 @@ import com.ruoyi.framework.security.context.PermissionContextHolder;
 
 /**
  * RuoYi首创 自定义权限实现，ss取自SpringSecurity首字母
+ * 权限字符串在首次使用时查询权限字典编号并缓存，之后的校验只是对登录用户权限位图的位运算；字典中不存在的权限字符判定为没有权限
  * 
  * @author ruoyi
  */
@@ -31,12 +31,12 @@ public class PermissionService
             return false;
         }
         LoginUser loginUser = SecurityUtils.getLoginUser();
-        if (StringUtils.isNull(loginUser) || CollectionUtils.isEmpty(loginUser.getPermissions()))
+        if (StringUtils.isNull(loginUser))
         {
             return false;
         }
         PermissionContextHolder.setContext(permission);
-        return hasPermissions(loginUser.getPermissions(), permission);
+        return loginUser.hasPermission(permission);
     }
 
     /**
@@ -63,20 +63,12 @@ public class PermissionService
             return false;
         }
         LoginUser loginUser = SecurityUtils.getLoginUser();
-        if (StringUtils.isNull(loginUser) || CollectionUtils.isEmpty(loginUser.getPermissions()))
+        if (StringUtils.isNull(loginUser))
         {
             return false;
         }
         PermissionContextHolder.setContext(permissions);
-        Set<String> authorities = loginUser.getPermissions();
-        for (String permission : permissions.split(Constants.PERMISSION_DELIMITER))
-        {
-            if (permission != null && hasPermissions(authorities, permission))
-            {
-                return true;
-            }
-        }
-        return false;
+        return loginUser.hasAnyPermission(permissions);
     }
 
     /**
@@ -144,16 +136,4 @@ public class PermissionService
         }
         return false;
     }
-
-    /**
-     * 判断是否包含权限
-     * 
-     * @param permissions 权限列表
-     * @param permission 权限字符串
-     * @return 用户是否具备某权限
-     */
-    private boolean hasPermissions(Set<String> permissions, String permission)
-    {
-        return permissions.contains(Constants.ALL_PERMISSION) || permissions.contains(StringUtils.trim(permission));
-    }
 }
@@ -0,0 +1,144 @@
+package com.ruoyi.framework.web.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruoyi.common.core.domain.AjaxResult;
+import com.ruoyi.common.core.domain.entity.SysMenu;
+import com.ruoyi.common.core.domain.entity.SysUser;
+import com.ruoyi.common.exception.ServiceException;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.system.service.ISysMenuService;
+import com.ruoyi.system.service.ISysRbacSnapshotService;
+
+/**
+ * 前端路由缓存
+ * 路由只取决于用户启用的角色集合，按排序后的角色ID组合缓存已序列化的响应，同一角色组合只构建一次；
+ * 角色或菜单变更会递增权限快照版本，版本变化后整体丢弃旧缓存。
+ * 用户的角色与角色状态都从权限快照读取，命中缓存时不访问数据库；不使用会话中登录时的角色，
+ * 授权变更或角色停用后无需重新登录即生效
+ *
+ * @author ruoyi
+ */
+@Component
+public class RouterCache
+{
+    /** 超级管理员的缓存key */
+    private static final String ADMIN_KEY = "admin";
+
+    /** 最多缓存的角色组合数 */
+    @Value("${ruoyi.routerCache.maxSize:1000}")
+    private int maxSize;
+
+    @Autowired
+    private ISysMenuService menuService;
+
+    @Autowired
+    private ISysRbacSnapshotService rbacSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Generation generation = new Generation(-1);
+
+    /**
+     * 获取用户的路由信息
+     *
+     * @param user 用户信息
+     * @return 序列化后的响应（JSON）
+     */
+    public byte[] getRouters(SysUser user)
+    {
+        Generation current = currentGeneration();
+        TreeSet<Long> roleIds = user.isAdmin() ? null : enabledRoleIds(user);
+        String key = roleIds == null ? ADMIN_KEY : StringUtils.join(roleIds, ",");
+        byte[] json = current.routers.get(key);
+        if (json != null)
+        {
+            return json;
+        }
+        List<SysMenu> menus;
+        if (roleIds == null)
+        {
+            menus = menuService.selectMenuTreeByUserId(user.getUserId());
+        }
+        else
+        {
+            menus = menuService.selectMenuTreeByRoleIds(roleIds);
+        }
+        try
+        {
+            json = objectMapper.writeValueAsBytes(AjaxResult.success(menuService.buildMenus(menus)));
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new ServiceException("路由信息序列化失败");
+        }
+        // 构建期间版本已变化时写入的是已被替换的旧缓存，不会被读到
+        if (current.routers.size() < maxSize)
+        {
+            current.routers.putIfAbsent(key, json);
+        }
+        return json;
+    }
+
+    private Generation currentGeneration()
+    {
+        long version = rbacSnapshotService.getVersion();
+        Generation current = generation;
+        if (current.version != version)
+        {
+            synchronized (this)
+            {
+                current = generation;
+                if (current.version != version)
+                {
+                    current = new Generation(version);
+                    generation = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 查询用户当前启用的角色
+     *
+     * @param user 用户信息
+     * @return 排序后的角色ID
+     */
+    private TreeSet<Long> enabledRoleIds(SysUser user)
+    {
+        TreeSet<Long> roleIds = new TreeSet<>();
+        for (Long roleId : rbacSnapshotService.selectUserRoleIds(user.getUserId()))
+        {
+            if (rbacSnapshotService.isRoleEnabled(roleId))
+            {
+                roleIds.add(roleId);
+            }
+        }
+        return roleIds;
+    }
+
+    /**
+     * 某一权限快照版本下的缓存
+     */
+    private static final class Generation
+    {
+        private final long version;
+
+        /** 角色组合 -> 序列化后的响应 */
+        private final Map<String, byte[]> routers = new ConcurrentHashMap<>();
+
+        private Generation(long version)
+        {
+            this.version = version;
+        }
+    }
+}
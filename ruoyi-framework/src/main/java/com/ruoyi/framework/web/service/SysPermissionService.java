@@ -12,10 +12,12 @@ import com.ruoyi.common.core.domain.entity.SysRole;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.system.service.ISysMenuService;
+import com.ruoyi.system.service.ISysRbacSnapshotService;
 import com.ruoyi.system.service.ISysRoleService;
 
 /**
  * 用户权限处理
+ * 用户已加载角色时，角色与菜单权限从进程内权限快照读取，不查询数据库
  * 
  * @author ruoyi
  */
@@ -28,6 +30,9 @@ public class SysPermissionService
     @Autowired
     private ISysMenuService menuService;
 
+    @Autowired
+    private ISysRbacSnapshotService rbacSnapshotService;
+
     /**
      * 获取角色数据权限
      * 
@@ -42,6 +47,17 @@ public class SysPermissionService
         {
             roles.add(Constants.SUPER_ADMIN);
         }
+        else if (!CollectionUtils.isEmpty(user.getRoles()))
+        {
+            for (SysRole role : user.getRoles())
+            {
+                Set<String> roleKeys = rbacSnapshotService.selectRoleKeys(role.getRoleId());
+                if (roleKeys != null)
+                {
+                    roles.addAll(roleKeys);
+                }
+            }
+        }
         else
         {
             roles.addAll(roleService.selectRolePermissionByUserId(user.getUserId()));
@@ -73,7 +89,7 @@ public class SysPermissionService
                 {
                     if (StringUtils.equals(role.getStatus(), UserConstants.ROLE_NORMAL) && !role.isAdmin())
                     {
-                        Set<String> rolePerms = menuService.selectMenuPermsByRoleId(role.getRoleId());
+                        Set<String> rolePerms = rbacSnapshotService.selectRolePerms(role.getRoleId());
                         role.setPermissions(rolePerms);
                         perms.addAll(rolePerms);
                     }
@@ -3,16 +3,19 @@ package com.ruoyi.framework.web.service;
 import com.ruoyi.common.constant.CacheConstants;
 import com.ruoyi.common.constant.Constants;
 import com.ruoyi.common.core.domain.model.LoginUser;
+import com.ruoyi.common.core.permission.PermissionDictionary;
 import com.ruoyi.common.core.redis.RedisCache;
 import com.ruoyi.common.utils.ServletUtils;
 import com.ruoyi.common.utils.StringUtils;
 import com.ruoyi.common.utils.http.UserAgentUtils;
 import com.ruoyi.common.utils.ip.AddressUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
+import com.ruoyi.common.utils.jwt.JwtTokenParser;
 import com.ruoyi.common.utils.uuid.IdUtils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +23,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -62,9 +69,31 @@ public class TokenService
 
     private static final Long MILLIS_MINUTE_TWENTY = 20 * 60 * 1000L;
 
+    // 已验签令牌的缓存条目数
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    // 已验签令牌的最大缓存时间（分钟）
+    @Value("${jwt.claims-cache-expire:10}")
+    private int claimsCacheExpire;
+
+    private JwtTokenParser tokenParser;
+
     @Autowired
     private RedisCache redisCache;
 
+    @Autowired
+    private LoginUserCache loginUserCache;
+
+    @Autowired
+    private OnlineSessionRegistry onlineSessionRegistry;
+
+    @PostConstruct
+    public void init()
+    {
+        tokenParser = new JwtTokenParser(secret, claimsCacheSize, claimsCacheExpire * MILLIS_MINUTE);
+    }
+
     /**
      * 获取用户身份信息
      * 
@@ -81,9 +110,7 @@ public class TokenService
                 Claims claims = parseToken(token);
                 // 解析对应的权限以及用户信息
                 String uuid = (String) claims.get(Constants.LOGIN_USER_KEY);
-                String userKey = getTokenKey(uuid);
-                LoginUser user = redisCache.getCacheObject(userKey);
-                return user;
+                return getLoginUserByUuid(uuid);
             }
             catch (Exception e)
             {
@@ -108,9 +135,7 @@ public class TokenService
                 Claims claims = parseToken(token);
                 // 解析对应的权限以及用户信息
                 String uuid = (String) claims.get(Constants.LOGIN_USER_KEY);
-                String userKey = getTokenKey(uuid);
-                LoginUser user = redisCache.getCacheObject(userKey);
-                return user;
+                return getLoginUserByUuid(uuid);
             }
             catch (Exception e)
             {
@@ -120,6 +145,63 @@ public class TokenService
         return null;
     }
 
+    /**
+     * 根据uuid获取用户信息，优先读取本地缓存，未命中再一次性读取redis中的用户信息与续期时间
+     *
+     * @param uuid 登录用户标识
+     * @return 用户信息
+     */
+    private LoginUser getLoginUserByUuid(String uuid)
+    {
+        LoginUser user = loginUserCache.get(uuid);
+        if (user == null)
+        {
+            List<Object> values = redisCache.getMultiCacheObject(Arrays.asList(getTokenKey(uuid), getTokenMetaKey(uuid)));
+            user = (LoginUser) values.get(0);
+            if (user != null)
+            {
+                applyTokenMeta(user, values.get(1));
+            }
+            loginUserCache.put(uuid, user);
+        }
+        return user;
+    }
+
+    /**
+     * 批量获取用户信息，用户信息与续期时间通过一次MGET读取
+     *
+     * @param uuids 登录用户标识集合
+     * @return 与uuids顺序一致的用户信息，会话不存在时对应null
+     */
+    public List<LoginUser> getLoginUsers(List<String> uuids)
+    {
+        if (StringUtils.isEmpty(uuids))
+        {
+            return new ArrayList<>();
+        }
+        List<String> keys = new ArrayList<>(uuids.size() * 2);
+        for (String uuid : uuids)
+        {
+            keys.add(getTokenKey(uuid));
+        }
+        for (String uuid : uuids)
+        {
+            keys.add(getTokenMetaKey(uuid));
+        }
+        List<Object> values = redisCache.getMultiCacheObject(keys);
+        List<LoginUser> users = new ArrayList<>(uuids.size());
+        for (int i = 0; i < uuids.size(); i++)
+        {
+            LoginUser user = (LoginUser) values.get(i);
+            if (user != null)
+            {
+                applyTokenMeta(user, values.get(uuids.size() + i));
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
     /**
      * 设置用户身份信息
      */
@@ -138,8 +220,9 @@ public class TokenService
     {
         if (StringUtils.isNotEmpty(token))
         {
-            String userKey = getTokenKey(token);
-            redisCache.deleteObject(userKey);
+            redisCache.deleteObject(Arrays.asList(getTokenKey(token), getTokenMetaKey(token)));
+            onlineSessionRegistry.unregister(Collections.singletonList(token), null, null);
+            loginUserCache.invalidate(token);
         }
     }
 
@@ -163,7 +246,7 @@ public class TokenService
     }
 
     /**
-     * 验证令牌有效期，相差不足20分钟，自动刷新缓存
+     * 验证令牌有效期，相差不足20分钟，自动续期
      * 
      * @param loginUser 登录信息
      * @return 令牌
@@ -174,7 +257,41 @@ public class TokenService
         long currentTime = System.currentTimeMillis();
         if (expireTime - currentTime <= MILLIS_MINUTE_TWENTY)
         {
-            refreshToken(loginUser);
+            touchToken(loginUser);
+        }
+    }
+
+    /**
+     * 滑动续期，仅延长用户信息的有效期并记录续期时间，不重写完整的用户信息
+     *
+     * @param loginUser 登录信息
+     */
+    public void touchToken(LoginUser loginUser)
+    {
+        loginUser.setLoginTime(System.currentTimeMillis());
+        loginUser.setExpireTime(loginUser.getLoginTime() + expireTime * MILLIS_MINUTE);
+        String token = loginUser.getToken();
+        redisCache.expireAndSet(getTokenKey(token), getTokenMetaKey(token), loginUser.getExpireTime(), expireTime, TimeUnit.MINUTES);
+        loginUserCache.put(token, loginUser);
+        onlineSessionRegistry.register(loginUser, expireTime);
+    }
+
+    /**
+     * 用续期时间覆盖用户信息中较早的有效期
+     *
+     * @param loginUser 登录信息
+     * @param meta 续期后的过期时间
+     */
+    private void applyTokenMeta(LoginUser loginUser, Object meta)
+    {
+        if (meta instanceof Number)
+        {
+            long metaExpireTime = ((Number) meta).longValue();
+            if (loginUser.getExpireTime() == null || metaExpireTime > loginUser.getExpireTime())
+            {
+                loginUser.setExpireTime(metaExpireTime);
+                loginUser.setLoginTime(metaExpireTime - expireTime * MILLIS_MINUTE);
+            }
         }
     }
 
@@ -185,11 +302,30 @@ public class TokenService
      */
     public void refreshToken(LoginUser loginUser)
     {
+        encodePermissions(loginUser);
         loginUser.setLoginTime(System.currentTimeMillis());
         loginUser.setExpireTime(loginUser.getLoginTime() + expireTime * MILLIS_MINUTE);
         // 根据uuid将loginUser缓存
         String userKey = getTokenKey(loginUser.getToken());
         redisCache.setCacheObject(userKey, loginUser, expireTime, TimeUnit.MINUTES);
+        loginUserCache.refresh(loginUser.getToken(), loginUser);
+        onlineSessionRegistry.register(loginUser, expireTime);
+    }
+
+    /**
+     * 权限列表编码为权限字典位图后写入会话，尚未分配的权限字符在此分配编号
+     *
+     * @param loginUser 登录信息
+     */
+    private void encodePermissions(LoginUser loginUser)
+    {
+        if (loginUser.getPermissionBits() != null || loginUser.getPermissions() == null)
+        {
+            return;
+        }
+        PermissionDictionary.EncodedPermissions encoded = PermissionDictionary.encode(loginUser.getPermissions());
+        loginUser.setPermissionBits(encoded.getBits());
+        loginUser.setPermissionEpoch(encoded.getEpoch());
     }
 
     /**
@@ -222,17 +358,14 @@ public class TokenService
     }
 
     /**
-     * 从令牌中获取数据声明
+     * 从令牌中获取数据声明，已验签的令牌直接取缓存
      *
      * @param token 令牌
      * @return 数据声明
      */
     private Claims parseToken(String token)
     {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody();
+        return tokenParser.parse(token).getClaims();
     }
 
     /**
@@ -267,4 +400,9 @@ public class TokenService
     {
         return CacheConstants.LOGIN_TOKEN_KEY + uuid;
     }
+
+    private String getTokenMetaKey(String uuid)
+    {
+        return CacheConstants.LOGIN_TOKEN_META_KEY + uuid;
+    }
 }
@@ -14,8 +14,7 @@ import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.ip.AddressUtils;
 import com.ruoyi.common.utils.ip.IpUtils;
 import com.ruoyi.common.utils.jwt.JwtUtils;
-import com.ruoyi.framework.manager.AsyncManager;
-import com.ruoyi.framework.manager.factory.AsyncFactory;
+import com.ruoyi.framework.manager.AuditLogManager;
 import com.ruoyi.framework.web.service.IGuestLoginService;
 import com.ruoyi.framework.web.service.SysPermissionService;
 import com.ruoyi.framework.web.service.TokenService;
@@ -113,21 +112,21 @@ public class GuestLoginServiceImpl implements IGuestLoginService
             // 检查用户状态
             if (UserConstants.USER_DISABLE.equals(existUser.getStatus()))
             {
-                AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, "游客账号已停用"));
+                AuditLogManager.me().recordLogininfor(username, Constants.LOGIN_FAIL, "游客账号已停用");
                 throw new ServiceException("游客账号已停用");
             }
 
             // 检查删除标志
             if ("2".equals(existUser.getDelFlag()))
             {
-                AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, "游客账号已删除"));
+                AuditLogManager.me().recordLogininfor(username, Constants.LOGIN_FAIL, "游客账号已删除");
                 throw new ServiceException("游客账号已删除");
             }
         }
 
         // 记录登录信息
         recordLoginInfo(existUser);
-        AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_SUCCESS, MessageUtils.message("user.login.success")));
+        AuditLogManager.me().recordLogininfor(username, Constants.LOGIN_SUCCESS, MessageUtils.message("user.login.success"));
 
         // 获取用户权限
         Set<String> permissions = permissionService.getMenuPermission(existUser);
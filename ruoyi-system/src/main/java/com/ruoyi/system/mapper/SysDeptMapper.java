@@ -108,6 +108,32 @@ public interface SysDeptMapper
      */
     public int updateDeptChildren(@Param("depts") List<SysDept> depts);
 
+    /**
+     * 新增部门的闭包关系（父部门的所有祖先及自身）
+     * 
+     * @param deptId 部门ID
+     * @param parentId 父部门ID
+     * @return 结果
+     */
+    public int insertDeptClosure(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
+    /**
+     * 删除部门子树与子树外祖先之间的闭包关系
+     * 
+     * @param deptId 子树根部门ID
+     * @return 结果
+     */
+    public int deleteDeptClosureOuter(Long deptId);
+
+    /**
+     * 新增部门子树与新父部门及其祖先之间的闭包关系
+     * 
+     * @param deptId 子树根部门ID
+     * @param parentId 新父部门ID
+     * @return 结果
+     */
+    public int insertDeptClosureOuter(@Param("deptId") Long deptId, @Param("parentId") Long parentId);
+
     /**
      * 删除部门管理信息
      * 
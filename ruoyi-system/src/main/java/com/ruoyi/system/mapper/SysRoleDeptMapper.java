@@ -10,6 +10,13 @@ import com.ruoyi.system.domain.SysRoleDept;
  */
 public interface SysRoleDeptMapper
 {
+    /**
+     * 查询全部角色和部门关联
+     * 
+     * @return 角色部门列表
+     */
+    public List<SysRoleDept> selectRoleDeptAll();
+
     /**
      * 通过角色ID删除角色和部门关联
      * 
@@ -10,6 +10,13 @@ import com.ruoyi.system.domain.SysRoleMenu;
  */
 public interface SysRoleMenuMapper
 {
+    /**
+     * 查询全部角色和菜单关联
+     * 
+     * @return 角色菜单列表
+     */
+    public List<SysRoleMenu> selectRoleMenuAll();
+
     /**
      * 查询菜单使用数量
      * 
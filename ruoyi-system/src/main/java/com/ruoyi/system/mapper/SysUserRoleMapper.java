@@ -59,4 +59,19 @@ public interface SysUserRoleMapper
      * @return 结果
      */
     public int deleteUserRoleInfos(@Param("roleId") Long roleId, @Param("userIds") Long[] userIds);
+
+    /**
+     * 查询全部用户和角色关联
+     * 
+     * @return 用户和角色关联列表
+     */
+    public List<SysUserRole> selectUserRoleAll();
+
+    /**
+     * 查询指定用户的用户和角色关联
+     * 
+     * @param userIds 用户ID
+     * @return 用户和角色关联列表
+     */
+    public List<SysUserRole> selectUserRoleByUserIds(Long[] userIds);
 }
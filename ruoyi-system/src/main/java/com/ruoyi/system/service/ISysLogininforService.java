@@ -17,6 +17,14 @@ public interface ISysLogininforService
      */
     public void insertLogininfor(SysLogininfor logininfor);
 
+    /**
+     * 批量新增系统登录日志
+     * 
+     * @param logininforList 访问日志列表
+     * @return 结果
+     */
+    public int batchInsertLogininfor(List<SysLogininfor> logininforList);
+
     /**
      * 查询系统登录日志集合
      * 
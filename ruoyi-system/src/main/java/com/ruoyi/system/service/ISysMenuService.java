@@ -1,5 +1,6 @@
 package com.ruoyi.system.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import com.ruoyi.common.core.domain.TreeSelect;
@@ -54,6 +55,14 @@ public interface ISysMenuService
      */
     public List<SysMenu> selectMenuTreeByUserId(Long userId);
 
+    /**
+     * 根据角色ID集合查询菜单树信息（角色与菜单的关联取自权限快照）
+     * 
+     * @param roleIds 角色ID集合
+     * @return 菜单列表
+     */
+    public List<SysMenu> selectMenuTreeByRoleIds(Collection<Long> roleIds);
+
     /**
      * 根据角色ID查询菜单树信息
      * 
@@ -17,6 +17,14 @@ public interface ISysOperLogService
      */
     public void insertOperlog(SysOperLog operLog);
 
+    /**
+     * 批量新增操作日志
+     * 
+     * @param operLogList 操作日志列表
+     * @return 结果
+     */
+    public int batchInsertOperlog(List<SysOperLog> operLogList);
+
     /**
      * 查询系统操作日志集合
      * 
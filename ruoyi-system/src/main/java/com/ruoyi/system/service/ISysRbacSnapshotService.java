@@ -0,0 +1,80 @@
+package com.ruoyi.system.service;
+
+import java.util.Set;
+
+/**
+ * 权限快照 服务层
+ * 角色权限字符、角色菜单、角色部门在进程内保存为只读快照，角色或菜单变更后整体替换；
+ * 用户角色关联随快照一起加载，用户授权变更时只刷新相关用户
+ *
+ * @author ruoyi
+ */
+public interface ISysRbacSnapshotService
+{
+    /**
+     * 当前快照版本，本节点每次重新加载快照后变化
+     *
+     * @return 版本号
+     */
+    public long getVersion();
+
+    /**
+     * 根据角色ID查询角色权限字符
+     *
+     * @param roleId 角色ID
+     * @return 角色权限字符（只读），角色不存在或已删除返回null
+     */
+    public Set<String> selectRoleKeys(Long roleId);
+
+    /**
+     * 角色是否启用
+     *
+     * @param roleId 角色ID
+     * @return 角色存在、未删除且状态正常返回true
+     */
+    public boolean isRoleEnabled(Long roleId);
+
+    /**
+     * 根据角色ID查询菜单权限
+     *
+     * @param roleId 角色ID
+     * @return 权限列表（只读，相同权限的角色共享同一集合）
+     */
+    public Set<String> selectRolePerms(Long roleId);
+
+    /**
+     * 根据角色ID查询菜单ID
+     *
+     * @param roleId 角色ID
+     * @return 菜单ID列表（只读）
+     */
+    public Set<Long> selectRoleMenuIds(Long roleId);
+
+    /**
+     * 根据角色ID查询数据权限部门ID
+     *
+     * @param roleId 角色ID
+     * @return 部门ID列表（只读）
+     */
+    public Set<Long> selectRoleDeptIds(Long roleId);
+
+    /**
+     * 根据用户ID查询角色ID
+     *
+     * @param userId 用户ID
+     * @return 角色ID列表（只读，包含已停用的角色）
+     */
+    public Set<Long> selectUserRoleIds(Long userId);
+
+    /**
+     * 角色或菜单数据变更后刷新快照，存在事务时在提交后执行，并通知其他节点
+     */
+    public void refresh();
+
+    /**
+     * 用户角色关联变更后刷新相关用户，存在事务时在提交后执行，并通知其他节点
+     *
+     * @param userIds 用户ID
+     */
+    public void refreshUserRoles(Long... userIds);
+}
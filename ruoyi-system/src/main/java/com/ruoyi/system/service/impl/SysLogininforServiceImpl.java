@@ -30,6 +30,18 @@ public class SysLogininforServiceImpl implements ISysLogininforService
         logininforMapper.insertLogininfor(logininfor);
     }
 
+    /**
+     * 批量新增系统登录日志
+     * 
+     * @param logininforList 访问日志列表
+     * @return 结果
+     */
+    @Override
+    public int batchInsertLogininfor(List<SysLogininfor> logininforList)
+    {
+        return logininforMapper.batchLogininfor(logininforList);
+    }
+
     /**
      * 查询系统登录日志集合
      * 
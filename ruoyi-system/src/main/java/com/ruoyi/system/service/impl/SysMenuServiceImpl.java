@@ -2,8 +2,8 @@ package com.ruoyi.system.service.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -18,12 +18,14 @@ import com.ruoyi.common.core.domain.entity.SysRole;
 import com.ruoyi.common.core.domain.entity.SysUser;
 import com.ruoyi.common.utils.SecurityUtils;
 import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.TreeUtils;
 import com.ruoyi.system.domain.vo.MetaVo;
 import com.ruoyi.system.domain.vo.RouterVo;
 import com.ruoyi.system.mapper.SysMenuMapper;
 import com.ruoyi.system.mapper.SysRoleMapper;
 import com.ruoyi.system.mapper.SysRoleMenuMapper;
 import com.ruoyi.system.service.ISysMenuService;
+import com.ruoyi.system.service.ISysRbacSnapshotService;
 
 /**
  * 菜单 业务层处理
@@ -44,6 +46,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Autowired
     private SysRoleMenuMapper roleMenuMapper;
 
+    @Autowired
+    private ISysRbacSnapshotService rbacSnapshotService;
+
     /**
      * 根据用户查询系统菜单列表
      * 
@@ -142,6 +147,34 @@ public class SysMenuServiceImpl implements ISysMenuService
         return getChildPerms(menus, 0);
     }
 
+    /**
+     * 根据角色ID集合查询菜单树信息（角色与菜单的关联取自权限快照）
+     * 
+     * @param roleIds 角色ID集合
+     * @return 菜单列表
+     */
+    @Override
+    public List<SysMenu> selectMenuTreeByRoleIds(Collection<Long> roleIds)
+    {
+        Set<Long> menuIds = new HashSet<>();
+        for (Long roleId : roleIds)
+        {
+            menuIds.addAll(rbacSnapshotService.selectRoleMenuIds(roleId));
+        }
+        List<SysMenu> menus = new ArrayList<SysMenu>();
+        if (!menuIds.isEmpty())
+        {
+            for (SysMenu menu : menuMapper.selectMenuTreeAll())
+            {
+                if (menuIds.contains(menu.getMenuId()))
+                {
+                    menus.add(menu);
+                }
+            }
+        }
+        return getChildPerms(menus, 0);
+    }
+
     /**
      * 根据角色ID查询菜单树信息
      * 
@@ -222,23 +255,7 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public List<SysMenu> buildMenuTree(List<SysMenu> menus)
     {
-        List<SysMenu> returnList = new ArrayList<SysMenu>();
-        List<Long> tempList = menus.stream().map(SysMenu::getMenuId).collect(Collectors.toList());
-        for (Iterator<SysMenu> iterator = menus.iterator(); iterator.hasNext();)
-        {
-            SysMenu menu = (SysMenu) iterator.next();
-            // 如果是顶级节点, 遍历该父节点的所有子节点
-            if (!tempList.contains(menu.getParentId()))
-            {
-                recursionFn(menus, menu);
-                returnList.add(menu);
-            }
-        }
-        if (returnList.isEmpty())
-        {
-            returnList = menus;
-        }
-        return returnList;
+        return TreeUtils.build(menus, SysMenu::getMenuId, SysMenu::getParentId, SysMenu::setChildren);
     }
 
     /**
@@ -301,7 +318,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public int insertMenu(SysMenu menu)
     {
-        return menuMapper.insertMenu(menu);
+        int rows = menuMapper.insertMenu(menu);
+        rbacSnapshotService.refresh();
+        return rows;
     }
 
     /**
@@ -313,7 +332,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public int updateMenu(SysMenu menu)
     {
-        return menuMapper.updateMenu(menu);
+        int rows = menuMapper.updateMenu(menu);
+        rbacSnapshotService.refresh();
+        return rows;
     }
 
     /**
@@ -325,7 +346,9 @@ public class SysMenuServiceImpl implements ISysMenuService
     @Override
     public int deleteMenuById(Long menuId)
     {
-        return menuMapper.deleteMenuById(menuId);
+        int rows = menuMapper.deleteMenuById(menuId);
+        rbacSnapshotService.refresh();
+        return rows;
     }
 
     /**
@@ -470,64 +493,7 @@ public class SysMenuServiceImpl implements ISysMenuService
      */
     public List<SysMenu> getChildPerms(List<SysMenu> list, int parentId)
     {
-        List<SysMenu> returnList = new ArrayList<SysMenu>();
-        for (Iterator<SysMenu> iterator = list.iterator(); iterator.hasNext();)
-        {
-            SysMenu t = (SysMenu) iterator.next();
-            // 一、根据传入的某个父节点ID,遍历该父节点的所有子节点
-            if (t.getParentId() == parentId)
-            {
-                recursionFn(list, t);
-                returnList.add(t);
-            }
-        }
-        return returnList;
-    }
-
-    /**
-     * 递归列表
-     * 
-     * @param list 分类表
-     * @param t 子节点
-     */
-    private void recursionFn(List<SysMenu> list, SysMenu t)
-    {
-        // 得到子节点列表
-        List<SysMenu> childList = getChildList(list, t);
-        t.setChildren(childList);
-        for (SysMenu tChild : childList)
-        {
-            if (hasChild(list, tChild))
-            {
-                recursionFn(list, tChild);
-            }
-        }
-    }
-
-    /**
-     * 得到子节点列表
-     */
-    private List<SysMenu> getChildList(List<SysMenu> list, SysMenu t)
-    {
-        List<SysMenu> tlist = new ArrayList<SysMenu>();
-        Iterator<SysMenu> it = list.iterator();
-        while (it.hasNext())
-        {
-            SysMenu n = (SysMenu) it.next();
-            if (n.getParentId().longValue() == t.getMenuId().longValue())
-            {
-                tlist.add(n);
-            }
-        }
-        return tlist;
-    }
-
-    /**
-     * 判断是否有子节点
-     */
-    private boolean hasChild(List<SysMenu> list, SysMenu t)
-    {
-        return getChildList(list, t).size() > 0;
+        return TreeUtils.build(list, parentId, SysMenu::getMenuId, SysMenu::getParentId, SysMenu::setChildren);
     }
 
     /**
@@ -29,6 +29,18 @@ public class SysOperLogServiceImpl implements ISysOperLogService
         operLogMapper.insertOperlog(operLog);
     }
 
+    /**
+     * 批量新增操作日志
+     * 
+     * @param operLogList 操作日志列表
+     * @return 结果
+     */
+    @Override
+    public int batchInsertOperlog(List<SysOperLog> operLogList)
+    {
+        return operLogMapper.batchOperLog(operLogList);
+    }
+
     /**
      * 查询系统操作日志集合
      * 
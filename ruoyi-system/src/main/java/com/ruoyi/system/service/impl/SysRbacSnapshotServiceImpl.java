@@ -0,0 +1,418 @@
+package com.ruoyi.system.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.ruoyi.common.constant.CacheConstants;
+import com.ruoyi.common.constant.UserConstants;
+import com.ruoyi.common.core.domain.entity.SysMenu;
+import com.ruoyi.common.core.domain.entity.SysRole;
+import com.ruoyi.common.utils.StringUtils;
+import com.ruoyi.common.utils.uuid.IdUtils;
+import com.ruoyi.system.domain.SysRoleDept;
+import com.ruoyi.system.domain.SysRoleMenu;
+import com.ruoyi.system.domain.SysUserRole;
+import com.ruoyi.system.mapper.SysMenuMapper;
+import com.ruoyi.system.mapper.SysRoleDeptMapper;
+import com.ruoyi.system.mapper.SysRoleMapper;
+import com.ruoyi.system.mapper.SysRoleMenuMapper;
+import com.ruoyi.system.mapper.SysUserRoleMapper;
+import com.ruoyi.system.service.ISysRbacSnapshotService;
+
+/**
+ * 权限快照 服务层处理
+ * 首次使用时一次性加载全部角色数据，之后只读；角色或菜单变更时本节点立即重新加载并整体替换快照，
+ * 再通过redis发布订阅通知其他节点。每次变更生成随机的变更标识随通知发出，节点收到与当前快照不同的标识即重新加载，
+ * 不依赖redis中的计数器，redis清空或重启不会使节点忽略后续变更。
+ * 登录与令牌刷新时的角色、菜单权限均从快照读取，不再查询数据库。
+ * 用户角色关联随快照整体加载；用户授权变更（包括访客注册）只重新查询相关用户并原地更新，再通知其他节点更新同样的用户，
+ * 避免每次授权都重新加载全部数据
+ *
+ * @author ruoyi
+ */
+@Service
+public class SysRbacSnapshotServiceImpl implements ISysRbacSnapshotService, MessageListener
+{
+    private static final Logger log = LoggerFactory.getLogger(SysRbacSnapshotServiceImpl.class);
+
+    private static final char MESSAGE_SEPARATOR = ':';
+
+    @Autowired
+    private SysRoleMapper roleMapper;
+
+    @Autowired
+    private SysMenuMapper menuMapper;
+
+    @Autowired
+    private SysRoleMenuMapper roleMenuMapper;
+
+    @Autowired
+    private SysRoleDeptMapper roleDeptMapper;
+
+    @Autowired
+    private SysUserRoleMapper userRoleMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /** 当前节点标识，忽略自身发出的刷新通知 */
+    private final String nodeId = IdUtils.fastSimpleUUID();
+
+    /** 当前快照，首次使用前为空 */
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init()
+    {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.RBAC_REFRESH_CHANNEL));
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.RBAC_USER_ROLE_CHANNEL));
+    }
+
+    @Override
+    public long getVersion()
+    {
+        return getSnapshot().version;
+    }
+
+    @Override
+    public Set<String> selectRoleKeys(Long roleId)
+    {
+        return getSnapshot().roleKeys.get(roleId);
+    }
+
+    @Override
+    public boolean isRoleEnabled(Long roleId)
+    {
+        return getSnapshot().enabledRoles.contains(roleId);
+    }
+
+    @Override
+    public Set<String> selectRolePerms(Long roleId)
+    {
+        return getSnapshot().rolePerms.getOrDefault(roleId, Collections.emptySet());
+    }
+
+    @Override
+    public Set<Long> selectRoleMenuIds(Long roleId)
+    {
+        return getSnapshot().roleMenus.getOrDefault(roleId, Collections.emptySet());
+    }
+
+    @Override
+    public Set<Long> selectRoleDeptIds(Long roleId)
+    {
+        return getSnapshot().roleDepts.getOrDefault(roleId, Collections.emptySet());
+    }
+
+    @Override
+    public Set<Long> selectUserRoleIds(Long userId)
+    {
+        return getSnapshot().userRoles.getOrDefault(userId, Collections.emptySet());
+    }
+
+    @Override
+    public void refresh()
+    {
+        afterCommit(this::bump);
+    }
+
+    @Override
+    public void refreshUserRoles(Long... userIds)
+    {
+        if (userIds == null || userIds.length == 0)
+        {
+            return;
+        }
+        afterCommit(() -> {
+            reloadUserRoles(userIds);
+            publish(CacheConstants.RBAC_USER_ROLE_CHANNEL, StringUtils.join(userIds, ","));
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(MESSAGE_SEPARATOR);
+        if (index < 0 || (index == nodeId.length() && body.startsWith(nodeId)))
+        {
+            return;
+        }
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        try
+        {
+            if (CacheConstants.RBAC_USER_ROLE_CHANNEL.equals(channel))
+            {
+                String[] ids = body.substring(index + 1).split(",");
+                Long[] userIds = new Long[ids.length];
+                for (int i = 0; i < ids.length; i++)
+                {
+                    userIds[i] = Long.valueOf(ids[i]);
+                }
+                reloadUserRoles(userIds);
+            }
+            else
+            {
+                reload(body.substring(index + 1), false);
+            }
+        }
+        catch (Exception e)
+        {
+            log.error("权限快照刷新失败'{}'", e.getMessage());
+        }
+    }
+
+    /**
+     * 事务未提交前重新加载会读到未提交或将被回滚的数据，存在事务时在提交后执行
+     */
+    private static void afterCommit(Runnable task)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    task.run();
+                }
+            });
+        }
+        else
+        {
+            task.run();
+        }
+    }
+
+    private void publish(String channel, String content)
+    {
+        try
+        {
+            stringRedisTemplate.convertAndSend(channel, nodeId + MESSAGE_SEPARATOR + content);
+        }
+        catch (Exception e)
+        {
+            log.error("发布权限快照刷新通知异常'{}'", e.getMessage());
+        }
+    }
+
+    private Snapshot getSnapshot()
+    {
+        Snapshot current = snapshot;
+        if (current == null)
+        {
+            current = reload(null, false);
+        }
+        return current;
+    }
+
+    /**
+     * 生成新的变更标识，重新加载本节点快照后通知其他节点
+     */
+    private void bump()
+    {
+        String changeId = IdUtils.fastSimpleUUID();
+        reload(changeId, true);
+        publish(CacheConstants.RBAC_REFRESH_CHANNEL, changeId);
+    }
+
+    /**
+     * 重新查询指定用户的角色并更新当前快照
+     * 与整体加载共用同一把锁，整体加载期间提交的授权变更会在加载完成后应用到新快照上，不会丢失
+     *
+     * @param userIds 用户ID
+     */
+    private synchronized void reloadUserRoles(Long[] userIds)
+    {
+        Snapshot current = snapshot;
+        if (current == null)
+        {
+            // 尚未加载，首次使用时整体加载即为最新数据
+            return;
+        }
+        Map<Long, Set<Long>> userRoles = new HashMap<>();
+        for (SysUserRole userRole : userRoleMapper.selectUserRoleByUserIds(userIds))
+        {
+            userRoles.computeIfAbsent(userRole.getUserId(), k -> new HashSet<>()).add(userRole.getRoleId());
+        }
+        for (Long userId : userIds)
+        {
+            Set<Long> roleIds = userRoles.get(userId);
+            if (roleIds == null)
+            {
+                current.userRoles.remove(userId);
+            }
+            else
+            {
+                current.userRoles.put(userId, Collections.unmodifiableSet(roleIds));
+            }
+        }
+    }
+
+    /**
+     * 重新加载快照
+     *
+     * @param changeId 变更标识
+     * @param force 是否强制加载，否则已加载过该变更（或首次加载已完成）时跳过
+     */
+    private synchronized Snapshot reload(String changeId, boolean force)
+    {
+        Snapshot current = snapshot;
+        if (current != null && !force && (changeId == null || changeId.equals(current.changeId)))
+        {
+            return current;
+        }
+        current = load(current == null ? 1 : current.version + 1, changeId);
+        snapshot = current;
+        return current;
+    }
+
+    private Snapshot load(long version, String changeId)
+    {
+        Map<String, String> strings = new HashMap<>();
+        Map<Set<?>, Set<?>> sets = new HashMap<>();
+
+        Map<Long, Set<String>> roleKeys = new HashMap<>();
+        Set<Long> enabledRoles = new HashSet<>();
+        for (SysRole role : roleMapper.selectRoleAll())
+        {
+            if (UserConstants.NORMAL.equals(role.getDelFlag()) && UserConstants.ROLE_NORMAL.equals(role.getStatus()))
+            {
+                enabledRoles.add(role.getRoleId());
+            }
+            if (UserConstants.NORMAL.equals(role.getDelFlag()) && StringUtils.isNotEmpty(role.getRoleKey()))
+            {
+                Set<String> keys = new HashSet<>();
+                split(role.getRoleKey(), keys, strings);
+                roleKeys.put(role.getRoleId(), intern(keys, sets));
+            }
+        }
+
+        // 停用菜单的权限字符不生效
+        SysMenu query = new SysMenu();
+        query.setStatus(UserConstants.NORMAL);
+        Map<Long, String> menuPerms = new HashMap<>();
+        for (SysMenu menu : menuMapper.selectMenuList(query))
+        {
+            if (StringUtils.isNotEmpty(menu.getPerms()))
+            {
+                menuPerms.put(menu.getMenuId(), menu.getPerms());
+            }
+        }
+        Map<Long, Set<String>> rolePerms = new HashMap<>();
+        Map<Long, Set<Long>> roleMenus = new HashMap<>();
+        for (SysRoleMenu roleMenu : roleMenuMapper.selectRoleMenuAll())
+        {
+            roleMenus.computeIfAbsent(roleMenu.getRoleId(), k -> new HashSet<>()).add(roleMenu.getMenuId());
+            String perms = menuPerms.get(roleMenu.getMenuId());
+            if (perms != null)
+            {
+                split(perms, rolePerms.computeIfAbsent(roleMenu.getRoleId(), k -> new HashSet<>()), strings);
+            }
+        }
+        rolePerms.replaceAll((roleId, perms) -> intern(perms, sets));
+        roleMenus.replaceAll((roleId, menuIds) -> intern(menuIds, sets));
+
+        Map<Long, Set<Long>> roleDepts = new HashMap<>();
+        for (SysRoleDept roleDept : roleDeptMapper.selectRoleDeptAll())
+        {
+            roleDepts.computeIfAbsent(roleDept.getRoleId(), k -> new HashSet<>()).add(roleDept.getDeptId());
+        }
+        roleDepts.replaceAll((roleId, deptIds) -> intern(deptIds, sets));
+
+        Map<Long, Set<Long>> userRoles = new ConcurrentHashMap<>();
+        for (SysUserRole userRole : userRoleMapper.selectUserRoleAll())
+        {
+            userRoles.computeIfAbsent(userRole.getUserId(), k -> new HashSet<>()).add(userRole.getRoleId());
+        }
+        userRoles.replaceAll((userId, roleIds) -> intern(roleIds, sets));
+
+        log.info("权限快照已加载，版本{}，角色{}个，用户{}个，不同权限集合{}个", version, roleKeys.size(), userRoles.size(),
+                sets.size());
+        return new Snapshot(version, changeId, roleKeys, Collections.unmodifiableSet(enabledRoles), rolePerms,
+                roleMenus, roleDepts, userRoles);
+    }
+
+    /**
+     * 按逗号拆分权限字符，相同字符串共享同一实例
+     */
+    private static void split(String value, Set<String> target, Map<String, String> strings)
+    {
+        for (String item : value.trim().split(","))
+        {
+            target.add(strings.computeIfAbsent(item, k -> k));
+        }
+    }
+
+    /**
+     * 内容相同的集合共享同一只读实例
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T> intern(Set<T> set, Map<Set<?>, Set<?>> sets)
+    {
+        return (Set<T>) sets.computeIfAbsent(set, k -> Collections.unmodifiableSet(set));
+    }
+
+    /**
+     * 只读快照，创建后不再修改，替换时整体切换引用；用户角色关联例外，按用户原地更新
+     */
+    private static final class Snapshot
+    {
+        /** 本节点内的版本号，每次加载递增 */
+        private final long version;
+
+        /** 加载时对应的变更标识，首次加载为空 */
+        private final String changeId;
+
+        /** 角色ID -> 角色权限字符，仅包含未删除的角色 */
+        private final Map<Long, Set<String>> roleKeys;
+
+        /** 未删除且状态正常的角色ID */
+        private final Set<Long> enabledRoles;
+
+        /** 角色ID -> 菜单权限 */
+        private final Map<Long, Set<String>> rolePerms;
+
+        /** 角色ID -> 菜单ID */
+        private final Map<Long, Set<Long>> roleMenus;
+
+        /** 角色ID -> 数据权限部门ID */
+        private final Map<Long, Set<Long>> roleDepts;
+
+        /** 用户ID -> 角色ID，包含已停用的角色 */
+        private final Map<Long, Set<Long>> userRoles;
+
+        private Snapshot(long version, String changeId, Map<Long, Set<String>> roleKeys, Set<Long> enabledRoles,
+                Map<Long, Set<String>> rolePerms, Map<Long, Set<Long>> roleMenus, Map<Long, Set<Long>> roleDepts,
+                Map<Long, Set<Long>> userRoles)
+        {
+            this.version = version;
+            this.changeId = changeId;
+            this.roleKeys = roleKeys;
+            this.enabledRoles = enabledRoles;
+            this.rolePerms = rolePerms;
+            this.roleMenus = roleMenus;
+            this.roleDepts = roleDepts;
+            this.userRoles = userRoles;
+        }
+    }
+}
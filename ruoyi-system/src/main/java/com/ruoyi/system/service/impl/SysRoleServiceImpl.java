@@ -23,6 +23,7 @@ import com.ruoyi.system.mapper.SysRoleDeptMapper;
 import com.ruoyi.system.mapper.SysRoleMapper;
 import com.ruoyi.system.mapper.SysRoleMenuMapper;
 import com.ruoyi.system.mapper.SysUserRoleMapper;
+import com.ruoyi.system.service.ISysRbacSnapshotService;
 import com.ruoyi.system.service.ISysRoleService;
 
 /**
@@ -45,6 +46,9 @@ public class SysRoleServiceImpl implements ISysRoleService
     @Autowired
     private SysRoleDeptMapper roleDeptMapper;
 
+    @Autowired
+    private ISysRbacSnapshotService rbacSnapshotService;
+
     /**
      * 根据条件分页查询角色数据
      * 
@@ -236,6 +240,7 @@ public class SysRoleServiceImpl implements ISysRoleService
     {
         // 新增角色信息
         roleMapper.insertRole(role);
+        rbacSnapshotService.refresh();
         return insertRoleMenu(role);
     }
 
@@ -253,6 +258,7 @@ public class SysRoleServiceImpl implements ISysRoleService
         roleMapper.updateRole(role);
         // 删除角色与菜单关联
         roleMenuMapper.deleteRoleMenuByRoleId(role.getRoleId());
+        rbacSnapshotService.refresh();
         return insertRoleMenu(role);
     }
 
@@ -265,7 +271,9 @@ public class SysRoleServiceImpl implements ISysRoleService
     @Override
     public int updateRoleStatus(SysRole role)
     {
-        return roleMapper.updateRole(role);
+        int rows = roleMapper.updateRole(role);
+        rbacSnapshotService.refresh();
+        return rows;
     }
 
     /**
@@ -282,6 +290,7 @@ public class SysRoleServiceImpl implements ISysRoleService
         roleMapper.updateRole(role);
         // 删除角色与部门关联
         roleDeptMapper.deleteRoleDeptByRoleId(role.getRoleId());
+        rbacSnapshotService.refresh();
         // 新增角色和部门信息（数据权限）
         return insertRoleDept(role);
     }
@@ -348,6 +357,7 @@ public class SysRoleServiceImpl implements ISysRoleService
         roleMenuMapper.deleteRoleMenuByRoleId(roleId);
         // 删除角色与部门关联
         roleDeptMapper.deleteRoleDeptByRoleId(roleId);
+        rbacSnapshotService.refresh();
         return roleMapper.deleteRoleById(roleId);
     }
 
@@ -375,6 +385,7 @@ public class SysRoleServiceImpl implements ISysRoleService
         roleMenuMapper.deleteRoleMenu(roleIds);
         // 删除角色与部门关联
         roleDeptMapper.deleteRoleDept(roleIds);
+        rbacSnapshotService.refresh();
         return roleMapper.deleteRoleByIds(roleIds);
     }
 
@@ -387,7 +398,9 @@ public class SysRoleServiceImpl implements ISysRoleService
     @Override
     public int deleteAuthUser(SysUserRole userRole)
     {
-        return userRoleMapper.deleteUserRoleInfo(userRole);
+        int rows = userRoleMapper.deleteUserRoleInfo(userRole);
+        rbacSnapshotService.refreshUserRoles(userRole.getUserId());
+        return rows;
     }
 
     /**
@@ -400,7 +413,9 @@ public class SysRoleServiceImpl implements ISysRoleService
     @Override
     public int deleteAuthUsers(Long roleId, Long[] userIds)
     {
-        return userRoleMapper.deleteUserRoleInfos(roleId, userIds);
+        int rows = userRoleMapper.deleteUserRoleInfos(roleId, userIds);
+        rbacSnapshotService.refreshUserRoles(userIds);
+        return rows;
     }
 
     /**
@@ -422,6 +437,8 @@ public class SysRoleServiceImpl implements ISysRoleService
             ur.setRoleId(roleId);
             list.add(ur);
         }
-        return userRoleMapper.batchUserRole(list);
+        int rows = userRoleMapper.batchUserRole(list);
+        rbacSnapshotService.refreshUserRoles(userIds);
+        return rows;
     }
 }
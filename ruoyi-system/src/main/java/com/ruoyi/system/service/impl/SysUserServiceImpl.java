@@ -30,6 +30,7 @@ import com.ruoyi.system.mapper.SysUserPostMapper;
 import com.ruoyi.system.mapper.SysUserRoleMapper;
 import com.ruoyi.system.service.ISysConfigService;
 import com.ruoyi.system.service.ISysDeptService;
+import com.ruoyi.system.service.ISysRbacSnapshotService;
 import com.ruoyi.system.service.ISysUserService;
 
 /**
@@ -63,6 +64,9 @@ public class SysUserServiceImpl implements ISysUserService
     @Autowired
     private ISysDeptService deptService;
 
+    @Autowired
+    private ISysRbacSnapshotService rbacSnapshotService;
+
     @Autowired
     protected Validator validator;
 
@@ -267,6 +271,10 @@ public class SysUserServiceImpl implements ISysUserService
         insertUserPost(user);
         // 新增用户与角色管理
         insertUserRole(user);
+        if (StringUtils.isNotEmpty(user.getRoleIds()))
+        {
+            rbacSnapshotService.refreshUserRoles(user.getUserId());
+        }
         return rows;
     }
 
@@ -297,6 +305,7 @@ public class SysUserServiceImpl implements ISysUserService
         userRoleMapper.deleteUserRoleByUserId(userId);
         // 新增用户与角色管理
         insertUserRole(user);
+        rbacSnapshotService.refreshUserRoles(userId);
         // 删除用户与岗位关联
         userPostMapper.deleteUserPostByUserId(userId);
         // 新增用户与岗位管理
@@ -316,6 +325,7 @@ public class SysUserServiceImpl implements ISysUserService
     {
         userRoleMapper.deleteUserRoleByUserId(userId);
         insertUserRole(userId, roleIds);
+        rbacSnapshotService.refreshUserRoles(userId);
     }
 
     /**
@@ -461,6 +471,7 @@ public class SysUserServiceImpl implements ISysUserService
     {
         // 删除用户与角色关联
         userRoleMapper.deleteUserRoleByUserId(userId);
+        rbacSnapshotService.refreshUserRoles(userId);
         // 删除用户与岗位表
         userPostMapper.deleteUserPostByUserId(userId);
         return userMapper.deleteUserById(userId);
@@ -483,6 +494,7 @@ public class SysUserServiceImpl implements ISysUserService
         }
         // 删除用户与角色关联
         userRoleMapper.deleteUserRole(userIds);
+        rbacSnapshotService.refreshUserRoles(userIds);
         // 删除用户与岗位关联
         userPostMapper.deleteUserPost(userIds);
         return userMapper.deleteUserByIds(userIds);
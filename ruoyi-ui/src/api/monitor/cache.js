@@ -16,11 +16,12 @@ export function listCacheName() {
   })
 }
 
-// 查询缓存键名列表
-export function listCacheKey(cacheName) {
+// 查询缓存键名列表（按游标分批）
+export function listCacheKey(cacheName, cursor) {
   return request({
     url: '/monitor/cache/getKeys/' + cacheName,
-    method: 'get'
+    method: 'get',
+    params: { cursor: cursor || '0' }
   })
 }
 
@@ -55,3 +56,11 @@ export function clearCacheAll() {
     method: 'delete'
   })
 }
+
+// 查询缓存清理进度
+export function getClearProgress(jobId) {
+  return request({
+    url: '/monitor/cache/clearProgress/' + jobId,
+    method: 'get'
+  })
+}
@@ -35,6 +35,27 @@ insert into sys_dept values(108,  102, '0,100,102',  '市场部门',   1, '若
 insert into sys_dept values(109,  102, '0,100,102',  '财务部门',   2, '若依', '13800138000', 'dept@example.com', '0', '0', 'admin', sysdate(), '', null);
 
 
+-- ----------------------------
+-- 部门闭包表  部门1-N下级部门（含自身，depth为0）
+-- ----------------------------
+drop table if exists sys_dept_closure;
+create table sys_dept_closure (
+  ancestor_id       bigint(20)      not null                   comment '祖先部门id',
+  descendant_id     bigint(20)      not null                   comment '后代部门id',
+  depth             int(4)          not null                   comment '层级距离',
+  primary key (ancestor_id, descendant_id),
+  key idx_sys_dept_closure_d (descendant_id)
+) engine=innodb comment = '部门闭包表';
+
+-- ----------------------------
+-- 初始化-部门闭包表数据（按祖级列表生成，已有数据升级时同样执行）
+-- ----------------------------
+insert into sys_dept_closure(ancestor_id, descendant_id, depth)
+select a.dept_id, d.dept_id,
+       (length(d.ancestors) - length(replace(d.ancestors, ',', ''))) - (length(a.ancestors) - length(replace(a.ancestors, ',', '')))
+from sys_dept d inner join sys_dept a on a.dept_id = d.dept_id or find_in_set(a.dept_id, d.ancestors);
+
+
 -- ----------------------------
 -- 2、用户信息表
 -- ----------------------------